@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.compact.StringPool;
+import com.example.server.model.User;
+import com.example.server.upstream.FakeUsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code User} / {@code CompactUser} conversion paid on cache writes and hits.
+ * Footprint is measured separately by {@link UserFootprint}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactUserBenchmark {
+
+    private final CompactUserCodec codec = new CompactUserCodec(new StringPool(65_536));
+    private User user;
+    private CompactUser compact;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        user = FakeUsers.user(1, new Random(42));
+        compact = codec.encode(user);
+    }
+
+    @Benchmark
+    public CompactUser encode() {
+        return codec.encode(user);
+    }
+
+    @Benchmark
+    public User decode() {
+        return codec.decode(compact);
+    }
+}
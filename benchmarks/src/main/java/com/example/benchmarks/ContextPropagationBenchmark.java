@@ -0,0 +1,83 @@
+package com.example.benchmarks;
+
+import com.example.server.accessors.ThreadLocalAccessor;
+import com.example.server.context.ContextPropagationManager;
+import com.example.server.context.ContextSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ContextPropagationManager.captureContext/restoreContext}, i.e. the work the task decorator does
+ * per submitted task. {@code captureAsMap} reproduces the former map-based capture as a baseline;
+ * run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextPropagationBenchmark {
+
+    private final RequestContextFixture fixture = new RequestContextFixture();
+    private List<ThreadLocalAccessor<?>> accessors;
+    private ContextPropagationManager manager;
+    private ContextSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accessors = fixture.accessors();
+        manager = new ContextPropagationManager(accessors);
+        fixture.install();
+        snapshot = manager.captureContext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.clear();
+    }
+
+    @Benchmark
+    public ContextSnapshot capture() {
+        return manager.captureContext();
+    }
+
+    @Benchmark
+    public void restore() {
+        manager.restoreContext(snapshot);
+    }
+
+    @Benchmark
+    public ContextSnapshot captureAndRestore() {
+        ContextSnapshot captured = manager.captureContext();
+        manager.restoreContext(captured);
+        return captured;
+    }
+
+    @Benchmark
+    public Map<String, Object> captureAsMap() {
+        Map<String, Object> context = new HashMap<>();
+        for (ThreadLocalAccessor<?> accessor : accessors) {
+            Object value = accessor.getValue();
+            if (value != null) {
+                context.put(accessor.getKey(), value);
+            }
+        }
+        return context;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.benchmarks;
+
+import com.example.server.context.CustomContext;
+import com.example.server.model.ContextParamDefault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CustomContext.init/put/get} as done per request by the interceptor and per call by the tools.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomContextBenchmark {
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CustomContext.init();
+        CustomContext.putObject(ContextParamDefault.X_TRAFFIC_TYPE, "live");
+        CustomContext.put(ContextParamDefault.X_TRAFFIC_COLOR, "blue");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CustomContext.clear();
+    }
+
+    @Benchmark
+    public void initAndClear() {
+        CustomContext.clear();
+        CustomContext.init();
+    }
+
+    @Benchmark
+    public void put() {
+        CustomContext.put(ContextParamDefault.X_TRAFFIC_COLOR, "blue");
+    }
+
+    @Benchmark
+    public void putObject() {
+        CustomContext.putObject(ContextParamDefault.X_TRAFFIC_TYPE, "live");
+    }
+
+    @Benchmark
+    public String get() {
+        return CustomContext.get(ContextParamDefault.X_TRAFFIC_COLOR);
+    }
+
+    @Benchmark
+    public String getObject() {
+        return CustomContext.getObject(ContextParamDefault.X_TRAFFIC_TYPE);
+    }
+}
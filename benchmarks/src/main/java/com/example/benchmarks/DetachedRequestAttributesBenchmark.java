@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import com.example.server.context.CapturedHeaders;
+import com.example.server.context.DetachedRequestAttributes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the {@link DetachedRequestAttributes} copy taken for every {@code /mcp/message} request,
+ * and the attribute copy it takes on first read or when the request completes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DetachedRequestAttributesBenchmark {
+
+    private ServletRequestAttributes original;
+    private CapturedHeaders headers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        original = new ServletRequestAttributes(RequestContextFixture.request());
+        headers = CapturedHeaders.of(RequestContextFixture.HEADERS);
+    }
+
+    @Benchmark
+    public DetachedRequestAttributes construct() {
+        return new DetachedRequestAttributes(original, headers);
+    }
+
+    @Benchmark
+    public Object constructAndRead() {
+        DetachedRequestAttributes detached = new DetachedRequestAttributes(original, headers);
+        return detached.getRequest().getHeader("x-request-tracking-id");
+    }
+
+    @Benchmark
+    public DetachedRequestAttributes constructAndDetach() {
+        DetachedRequestAttributes detached = new DetachedRequestAttributes(original, headers);
+        detached.detach();
+        return detached;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.benchmarks;
+
+import com.example.server.config.ExecutorConfig;
+import com.example.server.config.ExecutorProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fan-out of blocking, I/O-like tasks through the tool task executor in both {@code tools.executor.mode}s,
+ * with the context-propagating decorator in place. {@code VIRTUAL} needs a Java 21 build ({@code -Pjava21}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+    private static final long TASK_BLOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ExecutorProperties.Mode mode;
+
+    @Param({"100"})
+    public int tasks;
+
+    private final RequestContextFixture fixture = new RequestContextFixture();
+    private Executor executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExecutorConfig config = new ExecutorConfig();
+        ExecutorProperties properties = new ExecutorProperties();
+        properties.setMode(mode);
+        // The bounded queue must hold a whole fan-out, as with the default pool under a batch call
+        properties.setQueueCapacity(Math.max(properties.getQueueCapacity(), tasks));
+        executor = config.taskExecutor(
+                config.contextPropagatingTaskDecorator(config.contextPropagationManager(fixture.accessors())),
+                properties);
+        fixture.install();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.clear();
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    @Benchmark
+    public void fanOut() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks];
+        for (int i = 0; i < tasks; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> LockSupport.parkNanos(TASK_BLOCK_NANOS), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
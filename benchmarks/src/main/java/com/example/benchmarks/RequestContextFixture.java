@@ -0,0 +1,79 @@
+package com.example.benchmarks;
+
+import com.example.server.accessors.ThreadLocalAccessor;
+import com.example.server.accessors.accessorsImpl.CustomContextAccessor;
+import com.example.server.accessors.accessorsImpl.HeaderContextAccessor;
+import com.example.server.accessors.accessorsImpl.LocaleContextAccessor;
+import com.example.server.accessors.accessorsImpl.MdcAccessor;
+import com.example.server.accessors.accessorsImpl.RequestAttributesAccessor;
+import com.example.server.context.CapturedHeaders;
+import com.example.server.context.CustomContext;
+import com.example.server.model.ContextParamDefault;
+import org.springframework.context.i18n.SimpleLocaleContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Accessors and a representative {@code /mcp/message} request, shared by the benchmarks.
+ */
+final class RequestContextFixture {
+
+    static final Map<String, String> HEADERS = Map.of(
+            "content-type", "application/json",
+            "content-language", "en_US",
+            "country", "in",
+            "language", "en",
+            "x-request-tracking-id", "12345",
+            "accept", "text/event-stream",
+            "user-agent", "ReactorNetty/1.2.5",
+            "host", "localhost:8081");
+
+    final HeaderContextAccessor headerContextAccessor = new HeaderContextAccessor();
+    final CustomContextAccessor customContextAccessor = new CustomContextAccessor();
+    final MdcAccessor mdcAccessor = new MdcAccessor();
+    final RequestAttributesAccessor requestAttributesAccessor = new RequestAttributesAccessor();
+    final LocaleContextAccessor localeContextAccessor = new LocaleContextAccessor();
+
+    List<ThreadLocalAccessor<?>> accessors() {
+        return List.of(headerContextAccessor, customContextAccessor, mdcAccessor,
+                requestAttributesAccessor, localeContextAccessor);
+    }
+
+    static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp/message");
+        request.setQueryString("sessionId=3f1c2a9e-6b7d-4f0a-9a51-2c8e1b7d4e60");
+        HEADERS.forEach(request::addHeader);
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.bestMatchingPattern", "/mcp/message");
+        request.setAttribute("org.springframework.web.servlet.DispatcherServlet.CONTEXT", "context");
+        request.setAttribute("org.springframework.web.servlet.HandlerMapping.pathWithinHandlerMapping", "/mcp/message");
+        return request;
+    }
+
+    /**
+     * Populates every accessor the way {@code UnifiedContextInterceptor} does for a request.
+     */
+    void install() {
+        headerContextAccessor.setValue(CapturedHeaders.of(HEADERS));
+        requestAttributesAccessor.setValue(new ServletRequestAttributes(request()));
+        localeContextAccessor.setValue(new SimpleLocaleContext(Locale.US));
+        if (!CustomContext.isInitialized()) {
+            CustomContext.init();
+        }
+        CustomContext.put(ContextParamDefault.REQUEST_ID, "6f0d1c8e-2b4a-4c1e-9d3f-7a5b8e2c1f90");
+        CustomContext.put(ContextParamDefault.CORRELATION_ID, "0b9e4d2a-8c7f-4e61-a3d5-1f2e6c9b7a48");
+        CustomContext.putObject(ContextParamDefault.X_TRAFFIC_COLOR, "blue");
+        CustomContext.putObject(ContextParamDefault.X_TRAFFIC_TYPE, "live");
+        customContextAccessor.setValue(CustomContext.getCopyOfContextHolderMap());
+        mdcAccessor.setValue(CustomContext.getCopyOfContextMap());
+    }
+
+    void clear() {
+        for (ThreadLocalAccessor<?> accessor : accessors()) {
+            accessor.clear();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.example.server.ServerApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@code getUserById} dispatch through the {@link ToolCallbackProvider} of the server: JSON
+ * argument conversion, context restoration, cache, coalescing, the pooled upstream client and response
+ * mapping. Upstream is the embedded {@code FakeUpstream} with no simulated latency, so the numbers show
+ * the server's own overhead rather than the remote API's latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ToolDispatchBenchmark {
+
+    @Param({"true", "false"})
+    public boolean userCache;
+
+    private ConfigurableApplicationContext context;
+    private ToolCallback getUserById;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplication(ServerApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--tools.journal.enabled=false",
+                "--tools.upstream.fake.enabled=true",
+                "--tools.user-cache.enabled=" + userCache);
+
+        getUserById = Arrays.stream(context.getBean(ToolCallbackProvider.class).getToolCallbacks())
+                .filter(callback -> callback.getToolDefinition().name().equals("getUserById"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getUserById() {
+        return getUserById.call("{\"id\":1}");
+    }
+}
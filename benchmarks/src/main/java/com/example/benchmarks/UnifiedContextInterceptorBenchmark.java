@@ -0,0 +1,82 @@
+package com.example.benchmarks;
+
+import com.example.server.accessors.accessorsImpl.CustomContextAccessor;
+import com.example.server.accessors.accessorsImpl.HeaderContextAccessor;
+import com.example.server.accessors.accessorsImpl.LocaleContextAccessor;
+import com.example.server.accessors.accessorsImpl.MdcAccessor;
+import com.example.server.accessors.accessorsImpl.RequestAttributesAccessor;
+import com.example.server.config.HeaderPropagationProperties;
+import com.example.server.context.CustomContext;
+import com.example.server.context.HeaderPropagationPolicy;
+import com.example.server.interceptor.UnifiedContextInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of {@link UnifiedContextInterceptor} over a {@code /mcp/message} request: header capture,
+ * detached request attributes, locale, MDC and custom context, then cleanup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnifiedContextInterceptorBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private UnifiedContextInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private ServletRequestAttributes requestAttributes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(HeaderContextAccessor.class, CustomContextAccessor.class, MdcAccessor.class,
+                RequestAttributesAccessor.class, LocaleContextAccessor.class, UnifiedContextInterceptor.class);
+        context.registerBean(HeaderPropagationPolicy.class,
+                () -> new HeaderPropagationPolicy(new HeaderPropagationProperties().getAllowlist()));
+        context.refresh();
+        interceptor = context.getBean(UnifiedContextInterceptor.class);
+        request = RequestContextFixture.request();
+        response = new MockHttpServletResponse();
+        requestAttributes = new ServletRequestAttributes(request, response);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        context.close();
+    }
+
+    @Benchmark
+    public boolean handleRequest() {
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try {
+            boolean proceed = interceptor.preHandle(request, response, this);
+            interceptor.afterCompletion(request, response, this, null);
+            return proceed;
+        } finally {
+            CustomContext.clear();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.benchmarks;
+
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.compact.StringPool;
+import com.example.server.model.User;
+import com.example.server.upstream.FakeUsers;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retained heap of {@code User} vs {@code CompactUser} for a number of users (default 100k).
+ * <p>
+ * Usage: {@code java -Xmx4g -Djdk.attach.allowAttachSelf -cp benchmarks/target/benchmarks.jar com.example.benchmarks.UserFootprint [count]}
+ */
+public final class UserFootprint {
+
+    private UserFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        // Round-trip through JSON so every user owns its strings, as when mapped from upstream responses
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<User> users = objectMapper.readValue(objectMapper.writeValueAsBytes(FakeUsers.users(count, 42)),
+                new TypeReference<>() {
+                });
+
+        CompactUserCodec codec = new CompactUserCodec(new StringPool(65_536));
+        List<CompactUser> compactUsers = new ArrayList<>(count);
+        for (User user : users) {
+            CompactUser compact = codec.encode(user);
+            if (!user.equals(codec.decode(compact))) {
+                throw new IllegalStateException("Lossy conversion for user " + user.getId());
+            }
+            compactUsers.add(compact);
+        }
+
+        long userBytes = GraphLayout.parseInstance(users).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compactUsers, codec.pool()).totalSize();
+        System.out.printf("users:              %,d%n", count);
+        System.out.printf("User:               %,d bytes (%,d per user)%n", userBytes, userBytes / count);
+        System.out.printf("CompactUser + pool: %,d bytes (%,d per user)%n", compactBytes, compactBytes / count);
+        System.out.printf("ratio:              %.2f%n", (double) compactBytes / userBytes);
+        System.out.printf("pool:               %d codes, %d interned strings%n",
+                codec.pool().codeCount(), codec.pool().internedCount());
+    }
+}
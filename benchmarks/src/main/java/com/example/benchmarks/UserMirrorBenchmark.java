@@ -0,0 +1,64 @@
+package com.example.benchmarks;
+
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.compact.StringPool;
+import com.example.server.mirror.UserMirror;
+import com.example.server.model.UsersResponse;
+import com.example.server.projection.UserProjection;
+import com.example.server.upstream.FakeUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code searchUsers} answered from the local mirror: a common first name, a selective username and a
+ * two-letter query that bypasses the trigram index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMirrorBenchmark {
+
+    @Param({"208", "100000"})
+    public int users;
+
+    @Param({"emily", "ejohnson12", "em"})
+    public String query;
+
+    private final UserProjection projection = UserProjection.parse("firstName,lastName,email");
+    private UserMirror mirror;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mirror = new UserMirror(new RestTemplate(), "http://localhost", new CompactUserCodec(new StringPool(65_536)),
+                new ObjectMapper(), 100, Duration.ofDays(1), null, Duration.ZERO);
+        mirror.load(FakeUsers.users(users, 42));
+    }
+
+    @Benchmark
+    public UsersResponse search() {
+        return mirror.search(query, projection);
+    }
+
+    @Benchmark
+    public UsersResponse searchAllFields() {
+        return mirror.search(query, UserProjection.ALL);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.client.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Size-bounded, TTL-based LRU cache of complete chat answers.
+ * <p>
+ * Entries are keyed by the prompt with case and whitespace normalized, the system prompt and the values of a
+ * fixed set of request headers. A model round trip takes seconds, so a single lock around an access-ordered
+ * map costs nothing measurable here.
+ * <p>
+ * A tool that changes users {@linkplain #invalidate() drops} every answer. Answers are only stored if no such
+ * tool ran while they were produced, which also keeps out the answer of a turn that wrote itself.
+ */
+public class ChatResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final String systemPrompt;
+    private final List<String> keyHeaders;
+    private final Map<Key, Entry> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxEntries   upper bound on cached answers; {@code 0} disables caching
+     * @param ttlNanos     time-to-live of an answer after it was written; {@code 0} means no expiry
+     * @param systemPrompt system prompt the answers were generated with
+     * @param keyHeaders   request headers whose values are part of the key, matched case-insensitively
+     */
+    public ChatResponseCache(int maxEntries, long ttlNanos, String systemPrompt, List<String> keyHeaders) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.ttlNanos = ttlNanos;
+        this.systemPrompt = systemPrompt;
+        this.keyHeaders = keyHeaders.stream().map(name -> name.toLowerCase(Locale.ROOT)).sorted().distinct().toList();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @return the key to look the request up with, or {@code null} when caching is disabled or the request
+     * asks to bypass the cache
+     */
+    public Key keyFor(String prompt, Map<String, String> headers) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        Map<String, String> lowerCased = new LinkedHashMap<>();
+        headers.forEach((name, value) -> lowerCased.put(name.toLowerCase(Locale.ROOT), value));
+        if (bypasses(lowerCased.get("cache-control"))) {
+            bypasses.increment();
+            return null;
+        }
+        List<String> headerValues = new ArrayList<>(keyHeaders.size());
+        for (String name : keyHeaders) {
+            headerValues.add(lowerCased.get(name));
+        }
+        return new Key(normalize(prompt), systemPrompt, Collections.unmodifiableList(headerValues));
+    }
+
+    /**
+     * @return the cached answer, or {@code null} when absent or expired
+     */
+    public String get(Key key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - now <= 0) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.response();
+        }
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put} with the answer produced from here on
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Stores an answer unless the cache was invalidated or cleared since {@code generation} was read.
+     */
+    public void put(Key key, String response, long generation) {
+        if (response == null) {
+            return;
+        }
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : Long.MAX_VALUE;
+        synchronized (entries) {
+            if (generation != this.generation) {
+                return;
+            }
+            entries.put(key, new Entry(response, expiresAt));
+            var eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every answer, e.g. after the tools they were produced with changed. Answers still being produced
+     * are not stored.
+     */
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    /**
+     * Called after a tool that changes users ran; the answers may describe users as they were before.
+     */
+    public void invalidate() {
+        clear();
+        invalidations.increment();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long bypassCount() {
+        return bypasses.sum();
+    }
+
+    public long sizeEvictionCount() {
+        return sizeEvictions.sum();
+    }
+
+    public long expirationCount() {
+        return expirations.sum();
+    }
+
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    static String normalize(String prompt) {
+        return WHITESPACE.matcher(prompt.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean bypasses(String cacheControl) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String directive : cacheControl.split(",")) {
+            String name = directive.strip().toLowerCase(Locale.ROOT);
+            if (name.equals("no-cache") || name.equals("no-store")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param headerValues values of the key headers in sorted name order, {@code null} where absent
+     */
+    public record Key(String prompt, String systemPrompt, List<String> headerValues) {
+    }
+
+    private record Entry(String response, long expiresAt) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.client.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tool-call arguments as the model sent them, reduced to a canonical form (object keys sorted, insignificant
+ * whitespace removed) and the user ids they refer to through a top-level {@code id} or {@code ids}.
+ *
+ * @param canonical arguments with sorted keys, or the raw input if it is not valid JSON
+ * @param userIds   ids named by the arguments; empty for list, search and create calls
+ */
+public record ToolArguments(String canonical, Set<Integer> userIds) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    public static ToolArguments parse(String input) {
+        String json = input == null || input.isBlank() ? "{}" : input;
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            Set<Integer> userIds = new HashSet<>();
+            addId(node.get("id"), userIds);
+            JsonNode ids = node.get("ids");
+            if (ids != null && ids.isArray()) {
+                ids.forEach(id -> addId(id, userIds));
+            }
+            String canonical = MAPPER.writeValueAsString(MAPPER.treeToValue(node, Object.class));
+            return new ToolArguments(canonical, Set.copyOf(userIds));
+        } catch (JsonProcessingException e) {
+            return new ToolArguments(json.strip(), Set.of());
+        }
+    }
+
+    private static void addId(JsonNode id, Set<Integer> userIds) {
+        if (id == null) {
+            return;
+        }
+        if (id.isIntegralNumber() && id.canConvertToInt()) {
+            userIds.add(id.intValue());
+        } else if (id.isTextual()) {
+            try {
+                userIds.add(Integer.parseInt(id.asText().strip()));
+            } catch (NumberFormatException ignored) {
+                // Not a user id
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.client.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of read-only tool calls made within one conversation, keyed by tool name and canonical arguments.
+ * <p>
+ * Each entry remembers the user ids its arguments referred to, so a write only drops what it can have made
+ * stale: a write for a given id drops the results for that id and every result not tied to an id (lists and
+ * searches), a write without an id drops only the latter. A result read while a write ran is not stored:
+ * it may predate the write. Obtained from {@link ToolResultCaches}.
+ */
+public class ToolResultCache {
+
+    public static final String KEY = ToolResultCache.class.getName();
+
+    private final int maxEntries;
+    private final ToolResultCaches owner;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    ToolResultCache(int maxEntries, ToolResultCaches owner) {
+        this.maxEntries = maxEntries;
+        this.owner = owner;
+    }
+
+    /**
+     * @return the result of an earlier identical call, or {@code null}
+     */
+    public String get(String tool, ToolArguments arguments) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(tool, arguments.canonical()));
+        }
+        owner.recordLookup(entry != null);
+        return entry == null ? null : entry.result();
+    }
+
+    /**
+     * @return the current generation, to be passed to {@link #put} with a result read from here on
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Stores a result unless a write invalidated the cache since {@code generation} was read.
+     */
+    public void put(String tool, ToolArguments arguments, String result, long generation) {
+        if (result == null || maxEntries == 0) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation != this.generation) {
+                return;
+            }
+            entries.put(new Key(tool, arguments.canonical()), new Entry(result, arguments.userIds()));
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops the results a write with the given arguments can have made stale.
+     */
+    public void invalidate(ToolArguments writeArguments) {
+        Set<Integer> written = writeArguments.userIds();
+        int removed = 0;
+        synchronized (entries) {
+            generation++;
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Set<Integer> read = it.next().userIds();
+                if (read.isEmpty() || written.stream().anyMatch(read::contains)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        owner.recordInvalidation(removed);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Key(String tool, String arguments) {
+    }
+
+    private record Entry(String result, Set<Integer> userIds) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.client.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out the {@link ToolResultCache} of a conversation and decides which tools use it.
+ * <p>
+ * Without a conversation header every chat request is its own conversation and gets a fresh cache that is
+ * dropped with the request. Requests sharing a conversation header value share one cache until the
+ * conversation has been idle for the configured timeout; the least recently used conversations are dropped
+ * beyond the configured number. A write is applied to every live cache, not only to the cache of the
+ * conversation that made it, since each of them may hold the users it changed.
+ */
+public class ToolResultCaches {
+
+    public enum Role {
+        /**
+         * Read-only; results are memoized.
+         */
+        CACHEABLE,
+
+        /**
+         * Changes users; drops the results it can have made stale.
+         */
+        INVALIDATING,
+
+        NONE
+    }
+
+    private final boolean enabled;
+    private final Set<String> cacheableTools;
+    private final Set<String> invalidatingTools;
+    private final int maxEntriesPerConversation;
+    private final String conversationHeader;
+    private final int maxConversations;
+    private final long idleTimeoutNanos;
+    private final Map<String, Conversation> conversations = new LinkedHashMap<>(16, 0.75f, true);
+    // Every cache handed out and still reachable: conversation caches and those of requests in flight
+    private final Set<ToolResultCache> live = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param conversationHeader request header naming the conversation, or {@code null} to scope every cache
+     *                           to a single request
+     * @param idleTimeoutNanos   how long an idle conversation keeps its cache; {@code 0} means until evicted
+     */
+    public ToolResultCaches(boolean enabled, Set<String> cacheableTools, Set<String> invalidatingTools,
+                            int maxEntriesPerConversation, String conversationHeader, int maxConversations,
+                            long idleTimeoutNanos) {
+        this.enabled = enabled;
+        this.cacheableTools = Set.copyOf(cacheableTools);
+        this.invalidatingTools = Set.copyOf(invalidatingTools);
+        this.maxEntriesPerConversation = maxEntriesPerConversation;
+        this.conversationHeader = conversationHeader == null || conversationHeader.isBlank()
+                ? null : conversationHeader.toLowerCase(Locale.ROOT);
+        this.maxConversations = maxConversations;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+    }
+
+    /**
+     * Tools are matched by their server-side name; the MCP client prefix Spring AI adds
+     * ({@code <client>_<tool>}) is ignored.
+     */
+    public Role role(String toolName) {
+        if (!enabled) {
+            return Role.NONE;
+        }
+        if (matches(cacheableTools, toolName)) {
+            return Role.CACHEABLE;
+        }
+        if (matches(invalidatingTools, toolName)) {
+            return Role.INVALIDATING;
+        }
+        return Role.NONE;
+    }
+
+    /**
+     * Whether the tool changes users, whether or not results are memoized.
+     */
+    public boolean isWrite(String toolName) {
+        return matches(invalidatingTools, toolName);
+    }
+
+    /**
+     * @return the cache for the conversation the request belongs to, or {@code null} when disabled
+     */
+    public ToolResultCache forRequest(Map<String, String> headers) {
+        if (!enabled) {
+            return null;
+        }
+        String conversationId = conversationId(headers);
+        if (conversationId == null) {
+            return newCache();
+        }
+        long now = System.nanoTime();
+        synchronized (conversations) {
+            Conversation conversation = conversations.get(conversationId);
+            if (conversation == null || idleTimeoutNanos > 0 && now - conversation.lastUsed > idleTimeoutNanos) {
+                conversation = new Conversation(newCache());
+                conversations.put(conversationId, conversation);
+            }
+            conversation.lastUsed = now;
+            Iterator<Conversation> eldest = conversations.values().iterator();
+            while (conversations.size() > maxConversations) {
+                eldest.next();
+                eldest.remove();
+            }
+            return conversation.cache;
+        }
+    }
+
+    /**
+     * Drops, in every live cache, the results a write with the given arguments can have made stale.
+     */
+    public void invalidate(ToolArguments writeArguments) {
+        List<ToolResultCache> caches;
+        synchronized (live) {
+            caches = new ArrayList<>(live);
+        }
+        for (ToolResultCache cache : caches) {
+            cache.invalidate(writeArguments);
+        }
+    }
+
+    public int conversationCount() {
+        synchronized (conversations) {
+            return conversations.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    void recordLookup(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    void recordInvalidation(int removed) {
+        invalidations.add(removed);
+    }
+
+    private ToolResultCache newCache() {
+        ToolResultCache cache = new ToolResultCache(maxEntriesPerConversation, this);
+        synchronized (live) {
+            live.add(cache);
+        }
+        return cache;
+    }
+
+    private String conversationId(Map<String, String> headers) {
+        if (conversationHeader == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(conversationHeader) && !header.getValue().isBlank()) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(Set<String> names, String toolName) {
+        if (names.contains(toolName)) {
+            return true;
+        }
+        int separator = toolName.indexOf('_');
+        while (separator >= 0) {
+            if (names.contains(toolName.substring(separator + 1))) {
+                return true;
+            }
+            separator = toolName.indexOf('_', separator + 1);
+        }
+        return false;
+    }
+
+    private static final class Conversation {
+        final ToolResultCache cache;
+        long lastUsed;
+
+        Conversation(ToolResultCache cache) {
+            this.cache = cache;
+        }
+    }
+}
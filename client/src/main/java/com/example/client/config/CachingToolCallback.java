@@ -0,0 +1,75 @@
+package com.example.client.config;
+
+import com.example.client.cache.ToolArguments;
+import com.example.client.cache.ToolResultCache;
+import com.example.client.cache.ToolResultCaches;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Memoizes a read-only tool in the {@link ToolResultCache} the controller put in the tool context, or
+ * invalidates the memoized results of every conversation after a write tool. Reads without a cache go
+ * straight through.
+ */
+class CachingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolResultCaches.Role role;
+    private final ToolResultCaches caches;
+
+    CachingToolCallback(ToolCallback delegate, ToolResultCaches.Role role, ToolResultCaches caches) {
+        this.delegate = delegate;
+        this.role = role;
+        this.caches = caches;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        if (role == ToolResultCaches.Role.INVALIDATING) {
+            try {
+                return delegate.call(toolInput);
+            } finally {
+                caches.invalidate(ToolArguments.parse(toolInput));
+            }
+        }
+        return delegate.call(toolInput);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        if (role == ToolResultCaches.Role.INVALIDATING) {
+            try {
+                return delegate.call(toolInput, toolContext);
+            } finally {
+                // Also after a failure: the write may have been applied before the error surfaced
+                caches.invalidate(ToolArguments.parse(toolInput));
+            }
+        }
+        Object cache = toolContext == null ? null : toolContext.getContext().get(ToolResultCache.KEY);
+        if (!(cache instanceof ToolResultCache toolResults)) {
+            return delegate.call(toolInput, toolContext);
+        }
+        String tool = getToolDefinition().name();
+        ToolArguments arguments = ToolArguments.parse(toolInput);
+        String cached = toolResults.get(tool, arguments);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = toolResults.generation();
+        String result = delegate.call(toolInput, toolContext);
+        toolResults.put(tool, arguments, result, generation);
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.client.config;
+
+import com.example.client.cache.ChatResponseCache;
+import com.example.client.cache.ToolResultCaches;
+import com.example.client.metrics.ChatMetrics;
+import com.example.client.metrics.ChatResponseCacheMetrics;
+import com.example.client.metrics.ToolResultCacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ResponseCacheProperties.class, ToolCacheProperties.class})
+public class ChatClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatClientConfig.class);
+
+    @Bean
+    public ChatClientHolder chatClientHolder(ChatClient.Builder chatClientBuilder,
+                                             ToolCallbackProvider toolCallbackProvider,
+                                             ToolResultCaches toolResultCaches,
+                                             ChatResponseCache chatResponseCache) {
+        return new ChatClientHolder(chatClientBuilder, toolCallbackProvider, toolResultCaches, chatResponseCache);
+    }
+
+    @Bean
+    public ChatMetrics chatMetrics(MeterRegistry meterRegistry) {
+        return new ChatMetrics(meterRegistry);
+    }
+
+    @Bean
+    public ChatResponseCache chatResponseCache(ResponseCacheProperties properties) {
+        int maxEntries = properties.isEnabled() ? properties.getMaxEntries() : 0;
+        return new ChatResponseCache(maxEntries, properties.getTtl().toNanos(),
+                ChatClientHolder.SYSTEM_PROMPT, properties.getKeyHeaders());
+    }
+
+    @Bean
+    public ChatResponseCacheMetrics chatResponseCacheMetrics(ChatResponseCache chatResponseCache) {
+        return new ChatResponseCacheMetrics(chatResponseCache);
+    }
+
+    @Bean
+    public ToolResultCaches toolResultCaches(ToolCacheProperties properties) {
+        return new ToolResultCaches(properties.isEnabled(), properties.getCacheableTools(),
+                properties.getInvalidatingTools(), properties.getMaxEntries(), properties.getConversationHeader(),
+                properties.getMaxConversations(), properties.getConversationIdleTimeout().toNanos());
+    }
+
+    @Bean
+    public ToolResultCacheMetrics toolResultCacheMetrics(ToolResultCaches toolResultCaches) {
+        return new ToolResultCacheMetrics(toolResultCaches);
+    }
+
+    /**
+     * Rebuilds the chat client's tool callbacks when an MCP server announces a tool-list change, and drops
+     * the cached answers produced with the old tools. The holder is looked up lazily because the MCP clients
+     * it resolves tools from are built with this customizer.
+     */
+    @Bean
+    public McpSyncClientCustomizer toolsChangeCustomizer(ObjectProvider<ChatClientHolder> chatClientHolder,
+                                                         ObjectProvider<ChatResponseCache> chatResponseCache) {
+        return (name, spec) -> spec.toolsChangeConsumer(tools -> {
+            logger.info("MCP server {} changed its tool list ({} tools)", name, tools.size());
+            chatClientHolder.getObject().toolsChanged();
+            chatResponseCache.ifAvailable(ChatResponseCache::clear);
+        });
+    }
+}
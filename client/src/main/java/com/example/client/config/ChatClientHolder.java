@@ -0,0 +1,100 @@
+package com.example.client.config;
+
+import com.example.client.cache.ChatResponseCache;
+import com.example.client.cache.ToolResultCaches;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link ChatClient} used for every chat request, built once with the system prompt and the tool
+ * callbacks resolved from the MCP connections.
+ * <p>
+ * Resolving the tool callbacks lists the tools of every MCP server, so it only happens again after a
+ * server announces a tool-list change ({@link #toolsChanged()}); the next request then rebuilds the
+ * client. Per-request state such as headers and the user message is applied at call time; the callbacks
+ * pick the headers and the conversation's tool-result cache up from the tool context (see
+ * {@link HeaderContext}, {@link CachingToolCallback}). Tools that change users drop the cached answers
+ * ({@link ResponseCacheInvalidatingToolCallback}).
+ */
+public class ChatClientHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatClientHolder.class);
+
+    static final String SYSTEM_PROMPT = "Provide response in tabular form";
+
+    private final ChatClient.Builder chatClientBuilder;
+    private final ToolCallbackProvider toolCallbackProvider;
+    private final ToolResultCaches toolResultCaches;
+    private final ChatResponseCache responseCache;
+    private final AtomicLong toolsVersion = new AtomicLong();
+    private volatile Built built;
+
+    public ChatClientHolder(ChatClient.Builder chatClientBuilder, ToolCallbackProvider toolCallbackProvider,
+                            ToolResultCaches toolResultCaches, ChatResponseCache responseCache) {
+        this.chatClientBuilder = chatClientBuilder;
+        this.toolCallbackProvider = toolCallbackProvider;
+        this.toolResultCaches = toolResultCaches;
+        this.responseCache = responseCache;
+    }
+
+    public ChatClient chatClient() {
+        Built current = built;
+        if (current != null && current.toolsVersion() == toolsVersion.get()) {
+            return current.chatClient();
+        }
+        synchronized (this) {
+            // Read the version before resolving, so a change announced meanwhile triggers another rebuild
+            long version = toolsVersion.get();
+            current = built;
+            if (current == null || current.toolsVersion() != version) {
+                current = new Built(build(), version);
+                built = current;
+            }
+            return current.chatClient();
+        }
+    }
+
+    /**
+     * Marks the resolved tool callbacks outdated. Called from MCP notification threads, so it only flags
+     * the change and never resolves tools itself.
+     */
+    public void toolsChanged() {
+        toolsVersion.incrementAndGet();
+    }
+
+    private ChatClient build() {
+        List<ToolCallback> toolCallbacks = Arrays.stream(toolCallbackProvider.getToolCallbacks())
+                .map(this::wrap)
+                .toList();
+        logger.info("\nRegistered Tools:\n{}", String.join("\n", toolCallbacks.stream()
+                .map(tool -> String.format("%s - %s",
+                        tool.getToolDefinition().name(),
+                        tool.getToolDefinition().description()))
+                .toList()));
+        // clone() keeps the shared builder free of this client's defaults
+        return chatClientBuilder.clone()
+                .defaultSystem(SYSTEM_PROMPT)
+                .defaultToolCallbacks(toolCallbacks)
+                .build();
+    }
+
+    private ToolCallback wrap(ToolCallback toolCallback) {
+        String name = toolCallback.getToolDefinition().name();
+        ToolCallback wrapped = new HeaderPropagatingToolCallback(toolCallback);
+        if (toolResultCaches.isWrite(name)) {
+            wrapped = new ResponseCacheInvalidatingToolCallback(wrapped, responseCache);
+        }
+        ToolResultCaches.Role role = toolResultCaches.role(name);
+        return role == ToolResultCaches.Role.NONE ? wrapped : new CachingToolCallback(wrapped, role, toolResultCaches);
+    }
+
+    private record Built(ChatClient chatClient, long toolsVersion) {
+    }
+}
@@ -1,19 +1,81 @@
 package com.example.client.config;
 
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
 import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Carries the inbound request headers to the outgoing MCP requests.
+ * <p>
+ * The headers travel in the Reactor {@link Context}: the controller writes them with
+ * {@code contextWrite(HeaderContext.write(headers))} and {@link WebClientHeaderInjector} reads them when the
+ * request is sent, whatever thread that happens on.
+ * <p>
+ * The synchronous MCP client subscribes to its transport without passing the caller's context on, so a
+ * tool call bridges the gap on its own thread: the controller hands the headers to the tool callbacks
+ * through the tool context ({@link #toolContext(ContextView)}) and {@link HeaderPropagatingToolCallback}
+ * holds them in a thread-local {@link #open(Map) scope} while the blocking call runs.
+ */
+public final class HeaderContext {
+
+    public static final String KEY = HeaderContext.class.getName();
+
+    private static final ThreadLocal<Map<String, String>> current = new ThreadLocal<>();
+
+    private HeaderContext() {
+    }
 
-public class HeaderContext {
-    private static final ThreadLocal<Map<String, String>> context = new ThreadLocal<>();
+    /**
+     * @return a function for {@code contextWrite} that stores the headers in the subscriber context
+     */
+    public static Function<Context, Context> write(Map<String, String> headers) {
+        return context -> context.put(KEY, Map.copyOf(headers));
+    }
+
+    /**
+     * @return the headers stored in the context, or {@code null} if there are none
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, String> read(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    /**
+     * @return a tool context that makes the headers in the subscriber context available to tool callbacks
+     */
+    public static Map<String, Object> toolContext(ContextView context) {
+        Map<String, String> headers = read(context);
+        return headers == null ? Map.of() : Map.of(KEY, headers);
+    }
 
-    public static void set(Map<String, String> headers) {
-        context.set(headers);
+    /**
+     * @return the headers of the scope open on this thread, or {@code null} outside one
+     */
+    public static Map<String, String> current() {
+        return current.get();
     }
 
-    public static Map<String, String> get() {
-        return context.get();
+    /**
+     * Makes the headers {@link #current()} on this thread until the returned scope is closed, restoring
+     * whatever was there before.
+     */
+    public static Scope open(Map<String, String> headers) {
+        Map<String, String> previous = current.get();
+        current.set(headers);
+        return () -> {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        };
     }
 
-    public static void clear() {
-        context.remove();
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
     }
-}
\ No newline at end of file
+}
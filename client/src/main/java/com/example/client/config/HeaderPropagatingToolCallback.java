@@ -0,0 +1,48 @@
+package com.example.client.config;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Map;
+
+/**
+ * Runs a tool callback with the request headers from its tool context in a {@link HeaderContext} scope, so
+ * the MCP request it sends carries them even though the tool runs on a model or scheduler thread.
+ */
+class HeaderPropagatingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+
+    HeaderPropagatingToolCallback(ToolCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return delegate.call(toolInput);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String call(String toolInput, ToolContext toolContext) {
+        Object headers = toolContext == null ? null : toolContext.getContext().get(HeaderContext.KEY);
+        if (!(headers instanceof Map<?, ?>)) {
+            return delegate.call(toolInput, toolContext);
+        }
+        try (HeaderContext.Scope ignored = HeaderContext.open((Map<String, String>) headers)) {
+            return delegate.call(toolInput, toolContext);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.client.config;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Runs the independent tool calls of one model response concurrently, at most {@code maxParallelism} at a
+ * time, instead of one after another.
+ * <p>
+ * Calls to tools that change users are not independent of the calls around them: each one waits for the calls
+ * requested before it and runs alone, and the calls requested after it start once it is done. Only runs of
+ * read-only calls between them overlap, so {@code [updateUser(5), getUserById(5)]} reads the updated user and a
+ * memoized read cannot land after the write that should have dropped it.
+ * <p>
+ * Each call is handed to the delegate as a response of its own, so it is resolved, observed and its errors
+ * processed exactly as a single call would be; the tool context (and with it the request headers, see
+ * {@link HeaderContext}) goes along unchanged. The tool responses go back to the model in the order the calls
+ * were requested, whatever order they complete in.
+ */
+class ParallelToolCallingManager implements ToolCallingManager {
+
+    private final ToolCallingManager delegate;
+    private final int maxParallelism;
+    private final Predicate<String> isWrite;
+
+    /**
+     * @param isWrite whether a tool, by the name the model calls it by, changes users
+     */
+    ParallelToolCallingManager(ToolCallingManager delegate, int maxParallelism, Predicate<String> isWrite) {
+        this.delegate = delegate;
+        this.maxParallelism = maxParallelism;
+        this.isWrite = isWrite;
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        Generation generation = chatResponse.getResults().stream()
+                .filter(result -> result.getOutput().hasToolCalls())
+                .findFirst()
+                .orElse(null);
+        if (generation == null || maxParallelism < 2) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+        AssistantMessage assistantMessage = generation.getOutput();
+        List<List<AssistantMessage.ToolCall>> groups = groups(assistantMessage.getToolCalls());
+        if (groups.stream().allMatch(group -> group.size() < 2)) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+        List<ToolExecutionResult> results = Flux.fromIterable(groups)
+                .concatMap(group -> Flux.fromIterable(group)
+                        .map(toolCall -> new ChatResponse(List.of(new Generation(
+                                new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(),
+                                        List.of(toolCall)),
+                                generation.getMetadata())), chatResponse.getMetadata()))
+                        .flatMapSequential(single -> Mono.fromCallable(() -> delegate.executeToolCalls(prompt, single))
+                                .subscribeOn(Schedulers.boundedElastic()), maxParallelism))
+                .collectList()
+                .block();
+
+        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>();
+        boolean returnDirect = true;
+        for (ToolExecutionResult result : results) {
+            List<Message> history = result.conversationHistory();
+            if (history.get(history.size() - 1) instanceof ToolResponseMessage toolResponses) {
+                responses.addAll(toolResponses.getResponses());
+            }
+            returnDirect &= result.returnDirect();
+        }
+        List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+        conversationHistory.add(new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(),
+                assistantMessage.getToolCalls()));
+        conversationHistory.add(new ToolResponseMessage(responses, Map.of()));
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    /**
+     * Splits the calls, in request order, into runs of read-only calls and single writes; the groups run one
+     * after another.
+     */
+    private List<List<AssistantMessage.ToolCall>> groups(List<AssistantMessage.ToolCall> toolCalls) {
+        List<List<AssistantMessage.ToolCall>> groups = new ArrayList<>();
+        List<AssistantMessage.ToolCall> reads = new ArrayList<>();
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            if (isWrite.test(toolCall.name())) {
+                if (!reads.isEmpty()) {
+                    groups.add(reads);
+                    reads = new ArrayList<>();
+                }
+                groups.add(List.of(toolCall));
+            } else {
+                reads.add(toolCall);
+            }
+        }
+        if (!reads.isEmpty()) {
+            groups.add(reads);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.client.config;
+
+import com.example.client.cache.ChatResponseCache;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Drops the cached {@code /chat} answers after a tool that changes users, so a repeated prompt is neither
+ * answered with users as they were nor skips the write it asks for.
+ */
+class ResponseCacheInvalidatingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ChatResponseCache responseCache;
+
+    ResponseCacheInvalidatingToolCallback(ToolCallback delegate, ChatResponseCache responseCache) {
+        this.delegate = delegate;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        try {
+            return delegate.call(toolInput);
+        } finally {
+            responseCache.invalidate();
+        }
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        try {
+            return delegate.call(toolInput, toolContext);
+        } finally {
+            // Also after a failure: the write may have been applied before the error surfaced
+            responseCache.invalidate();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.client.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache of complete {@code /chat} answers, keyed by the normalized prompt, the system prompt and the
+ * {@link #keyHeaders} of the request. A request sending {@code Cache-Control: no-cache} or {@code no-store}
+ * bypasses it.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Upper bound on cached answers; least recently used entries are evicted beyond it.
+     */
+    private int maxEntries = 500;
+
+    /**
+     * How long an answer is served from the cache; zero disables expiry.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Request headers (case-insensitive) whose values are part of the key, because the server's tools
+     * answer differently depending on them. Other headers do not split the cache.
+     */
+    private List<String> keyHeaders = List.of("content-language", "country", "language");
+}
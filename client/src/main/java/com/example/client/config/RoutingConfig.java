@@ -0,0 +1,42 @@
+package com.example.client.config;
+
+import com.example.client.metrics.McpReplicaMetrics;
+import com.example.client.routing.ReplicaRouter;
+import com.example.client.routing.ReplicaRoutingToolCallbackProvider;
+import io.modelcontextprotocol.client.McpSyncClient;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+public class RoutingConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(ObjectProvider<List<McpSyncClient>> mcpSyncClients,
+                                       RoutingProperties properties) {
+        return new ReplicaRouter(mcpSyncClients.getIfAvailable(List::of), properties.getConsecutiveFailures(),
+                properties.getBaseEjectionTime().toNanos(), properties.getMaxEjectionTime().toNanos(),
+                properties.getLatencySmoothing());
+    }
+
+    /**
+     * Replaces Spring AI's flat per-connection tool list ({@code spring.ai.mcp.client.toolcallback.enabled}
+     * is turned off); primary in case it is turned back on.
+     */
+    @Bean
+    @Primary
+    public ToolCallbackProvider replicaRoutingToolCallbackProvider(ReplicaRouter replicaRouter) {
+        return new ReplicaRoutingToolCallbackProvider(replicaRouter);
+    }
+
+    @Bean
+    public McpReplicaMetrics mcpReplicaMetrics(ReplicaRouter replicaRouter) {
+        return new McpReplicaMetrics(replicaRouter);
+    }
+}
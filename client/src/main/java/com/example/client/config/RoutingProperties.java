@@ -0,0 +1,32 @@
+package com.example.client.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Routing of tool calls across MCP connections that list the same tools, see
+ * {@link com.example.client.routing.ReplicaRouter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.routing")
+public class RoutingProperties {
+
+    /**
+     * Consecutive transport failures after which a connection stops receiving calls.
+     */
+    private int consecutiveFailures = 3;
+
+    /**
+     * How long the first ejection in a row lasts; each further one lasts this much longer.
+     */
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /**
+     * Weight of the newest call in each connection's moving latency average, between 0 and 1.
+     */
+    private double latencySmoothing = 0.3;
+}
@@ -0,0 +1,50 @@
+package com.example.client.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Memoization of read-only tool results within a conversation, so the model calling the same tool with the
+ * same arguments again in one turn does not cost another round trip to the MCP server.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.tool-cache")
+public class ToolCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Read-only tools whose results are memoized, by server-side name.
+     */
+    private Set<String> cacheableTools = Set.of("getAllUsers", "getAllUsersDefault", "getUserById",
+            "getUsersByIds", "searchUsers");
+
+    /**
+     * Tools that change users; each call drops the memoized results it can have made stale.
+     */
+    private Set<String> invalidatingTools = Set.of("addUser", "updateUser", "deleteUser");
+
+    /**
+     * Upper bound on memoized results per conversation; least recently used ones are dropped beyond it.
+     */
+    private int maxEntries = 256;
+
+    /**
+     * Request header naming the conversation. Requests without it are a conversation of their own; leave
+     * empty to always scope results to a single request.
+     */
+    private String conversationHeader = "x-conversation-id";
+
+    /**
+     * Upper bound on conversations whose results are kept between requests.
+     */
+    private int maxConversations = 1_000;
+
+    /**
+     * How long a conversation keeps its results after its last request; zero keeps them until evicted.
+     */
+    private Duration conversationIdleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,36 @@
+package com.example.client.config;
+
+import com.example.client.cache.ToolResultCaches;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ToolCallingProperties.class)
+public class ToolCallingConfig {
+
+    /**
+     * Takes the place of Spring AI's tool calling manager (which backs off once one is defined here) and runs
+     * each call through one built the same way. Calls to the tools {@link ToolResultCaches} knows as writes are
+     * kept in order.
+     */
+    @Bean
+    public ToolCallingManager parallelToolCallingManager(ToolCallbackResolver toolCallbackResolver,
+                                                         ToolExecutionExceptionProcessor exceptionProcessor,
+                                                         ObjectProvider<ObservationRegistry> observationRegistry,
+                                                         ToolCallingProperties properties,
+                                                         ToolResultCaches toolResultCaches) {
+        ToolCallingManager delegate = DefaultToolCallingManager.builder()
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .toolCallbackResolver(toolCallbackResolver)
+                .toolExecutionExceptionProcessor(exceptionProcessor)
+                .build();
+        return new ParallelToolCallingManager(delegate, properties.getMaxParallelism(), toolResultCaches::isWrite);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.client.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Execution of the tool calls the model requests in one response, see {@link ParallelToolCallingManager}.
+ */
+@Data
+@ConfigurationProperties(prefix = "chat.tool-calling")
+public class ToolCallingProperties {
+
+    /**
+     * Tool calls of one model response that run at the same time; {@code 1} runs them one after another.
+     */
+    private int maxParallelism = 4;
+}
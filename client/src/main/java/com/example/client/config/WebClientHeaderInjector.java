@@ -1,26 +1,31 @@
 package com.example.client.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
 @Configuration
 public class WebClientHeaderInjector {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebClientHeaderInjector.class);
+
     @Bean
     public WebClient.Builder webClientBuilder() {
         return WebClient.builder()
-                .filter((request, next) -> {
-                    Map<String, String> headers = HeaderContext.get();
+                .filter((request, next) -> Mono.deferContextual(context -> {
+                    // The subscriber context first; the thread-local scope covers the synchronous MCP client,
+                    // which subscribes to the transport without the caller's context
+                    Map<String, String> fromContext = HeaderContext.read(context);
+                    Map<String, String> headers = fromContext != null ? fromContext : HeaderContext.current();
 
                     if (headers != null && !headers.isEmpty()) {
-                        System.out.println("➡ Adding headers to WebClient request:");
-                        headers.forEach((key, value) ->
-                                System.out.println("   " + key + ": " + value)
-                        );
+                        logger.debug("Adding headers to WebClient request: {}", headers.keySet());
 
                         ClientRequest newRequest = ClientRequest.from(request)
                                 .headers(httpHeaders -> headers.forEach(httpHeaders::set))
@@ -29,8 +34,8 @@ public class WebClientHeaderInjector {
                         return next.exchange(newRequest);
                     }
 
-                    System.out.println("⚠ No headers found in HeaderContext");
+                    logger.debug("No headers found in HeaderContext");
                     return next.exchange(request);
-                });
+                }));
     }
-}
\ No newline at end of file
+}
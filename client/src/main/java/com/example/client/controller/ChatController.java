@@ -1,69 +1,150 @@
 package com.example.client.controller;
 
+import com.example.client.cache.ChatResponseCache;
+import com.example.client.cache.ToolResultCache;
+import com.example.client.cache.ToolResultCaches;
+import com.example.client.config.ChatClientHolder;
 import com.example.client.config.HeaderContext;
+import com.example.client.metrics.ChatMetrics;
+import com.example.client.model.ChatToken;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 @RestController
 public class ChatController {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
-    private final ToolCallbackProvider toolCallbackProvider;
-    private final ChatClient.Builder chatClientBuilder;
+    private final ChatClientHolder chatClientHolder;
+    private final ChatMetrics chatMetrics;
+    private final ChatResponseCache responseCache;
+    private final ToolResultCaches toolResultCaches;
 
     @Autowired
-    public ChatController(ChatClient.Builder chatClientBuilder,
-                          ToolCallbackProvider toolCallbackProvider) {
-        this.chatClientBuilder = chatClientBuilder;
-        this.toolCallbackProvider = toolCallbackProvider;
+    public ChatController(ChatClientHolder chatClientHolder,
+                          ChatMetrics chatMetrics,
+                          ChatResponseCache responseCache,
+                          ToolResultCaches toolResultCaches) {
+        this.chatClientHolder = chatClientHolder;
+        this.chatMetrics = chatMetrics;
+        this.responseCache = responseCache;
+        this.toolResultCaches = toolResultCaches;
     }
 
     @PostConstruct
     public void init() {
+        // Resolves and logs the tools once at startup rather than on the first request
+        chatClientHolder.chatClient();
+    }
 
-        List<String> toolInfoList = Arrays.stream(toolCallbackProvider.getToolCallbacks())
-                .map(tool -> String.format("%s - %s",
-                        tool.getToolDefinition().name(),
-                        tool.getToolDefinition().description()))
-                .toList();
-        logger.info("\nRegistered Tools:\n{}", String.join("\n", toolInfoList));
+    /**
+     * Answers with the complete response once the model and any tool calls are done. The inbound headers
+     * are written to the subscriber context here and forwarded on every MCP request the answer needs.
+     * With the response cache enabled, a repeated prompt is answered without calling the model.
+     */
+    @PostMapping("/chat")
+    public Mono<String> chat(@RequestBody String userMessage,
+                             @RequestHeader Map<String, String> headers) {
 
+        long start = System.nanoTime();
+        ChatResponseCache.Key cacheKey = responseCache.keyFor(userMessage, headers);
+        String cached = cacheKey == null ? null : responseCache.get(cacheKey);
+        if (cached != null) {
+            chatMetrics.recordLatency(ChatMetrics.Endpoint.CHAT, System.nanoTime() - start,
+                    ChatMetrics.Outcome.CACHED);
+            return Mono.just(cached);
+        }
+
+        // Read before the model call: a write tool running meanwhile (this turn's own included) keeps the answer out
+        long cacheGeneration = cacheKey == null ? 0 : responseCache.generation();
+        return Mono.deferContextual(context -> {
+            // The synchronous model call runs off the request thread
+            return Mono.fromCallable(() -> chatClientHolder.chatClient()
+                            .prompt(userMessage)
+                            .toolContext(toolContext(context, headers))
+                            .call().content())
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnNext(response -> {
+                        logger.info("Proper response : " + response);
+                        if (cacheKey != null) {
+                            responseCache.put(cacheKey, response, cacheGeneration);
+                        }
+                    })
+                    .doFinally(signal -> chatMetrics.recordLatency(ChatMetrics.Endpoint.CHAT,
+                            System.nanoTime() - start, outcome(signal)));
+        })
+                .onErrorResume(e -> Mono.just("Error: " + e.getMessage()))
+                .contextWrite(HeaderContext.write(headers));
     }
 
-    @PostMapping("/chat")
-    public String chat(@RequestBody String userMessage,
-                       @RequestHeader Map<String, String> headers) {
+    /**
+     * Streams the answer as Server-Sent Events, one {@link ChatToken} per event as the model produces it.
+     * Tool calls requested by the model are executed mid-stream before generation continues. A failure
+     * ends the stream with an {@code error} event.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChatToken>> chatStream(@RequestBody String userMessage,
+                                                       @RequestHeader Map<String, String> headers) {
 
-        try {
-            // Set dynamic headers for current thread
-            HeaderContext.set(headers);
-            String response = chatClientBuilder.build()
+        return Flux.deferContextual(context -> {
+            long start = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean();
+            return chatClientHolder.chatClient()
                     .prompt(userMessage)
-                    .system("Provide response in tabular form")
-                    .toolCallbacks(toolCallbackProvider)
-                    .call().content();
-
-            logger.info("Proper response : " + response);
+                    .toolContext(toolContext(context, headers))
+                    .stream().content()
+                    .doOnNext(token -> {
+                        if (firstToken.compareAndSet(false, true)) {
+                            chatMetrics.recordTimeToFirstToken(System.nanoTime() - start);
+                        }
+                    })
+                    .doFinally(signal -> chatMetrics.recordLatency(ChatMetrics.Endpoint.STREAM,
+                            System.nanoTime() - start, outcome(signal)));
+        })
+                .map(token -> ServerSentEvent.builder(new ChatToken(token)).build())
+                .onErrorResume(e -> {
+                    logger.warn("Streaming chat failed: {}", e.getMessage());
+                    return Flux.just(ServerSentEvent.builder(new ChatToken("Error: " + e.getMessage()))
+                            .event("error")
+                            .build());
+                })
+                .contextWrite(HeaderContext.write(headers));
+    }
 
-            return response;
-        } catch (Exception e) {
-            return "Error: " + e.getMessage();
-        } finally {
-            HeaderContext.clear(); // Cleanup to avoid header leaks across requests
+    /**
+     * The request's headers and the tool-result cache of its conversation, for the tool callbacks.
+     */
+    private Map<String, Object> toolContext(ContextView context, Map<String, String> headers) {
+        Map<String, Object> toolContext = new HashMap<>(HeaderContext.toolContext(context));
+        ToolResultCache toolResults = toolResultCaches.forRequest(headers);
+        if (toolResults != null) {
+            toolContext.put(ToolResultCache.KEY, toolResults);
         }
+        return toolContext;
+    }
+
+    private static ChatMetrics.Outcome outcome(SignalType signal) {
+        return switch (signal) {
+            case CANCEL -> ChatMetrics.Outcome.CANCELLED;
+            case ON_ERROR -> ChatMetrics.Outcome.ERROR;
+            default -> ChatMetrics.Outcome.SUCCESS;
+        };
     }
 }
@@ -0,0 +1,74 @@
+package com.example.client.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of chat requests: {@code chat.latency} from request to the complete answer, tagged by endpoint and
+ * outcome, and {@code chat.time.to.first.token} for streamed answers. Both are published as percentile
+ * histograms.
+ */
+public class ChatMetrics {
+
+    public enum Endpoint {
+        CHAT,
+
+        STREAM;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    public enum Outcome {
+        SUCCESS,
+
+        ERROR,
+
+        /**
+         * The caller went away before the stream completed.
+         */
+        CANCELLED,
+
+        /**
+         * Answered from the response cache without calling the model.
+         */
+        CACHED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final Map<Endpoint, Map<Outcome, Timer>> latency = new EnumMap<>(Endpoint.class);
+    private final Timer timeToFirstToken;
+
+    public ChatMetrics(MeterRegistry registry) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                timers.put(outcome, Timer.builder("chat.latency")
+                        .tag("endpoint", endpoint.tag)
+                        .tag("outcome", outcome.tag)
+                        .description("Time from a chat request to its complete answer")
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+            latency.put(endpoint, timers);
+        }
+        this.timeToFirstToken = Timer.builder("chat.time.to.first.token")
+                .tag("endpoint", Endpoint.STREAM.tag)
+                .description("Time from a streaming chat request to its first token")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordLatency(Endpoint endpoint, long nanos, Outcome outcome) {
+        latency.get(endpoint).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTimeToFirstToken(long nanos) {
+        timeToFirstToken.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.client.metrics;
+
+import com.example.client.cache.ChatResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes hit, miss, bypass, eviction and invalidation counters of the {@code /chat} response cache.
+ */
+public class ChatResponseCacheMetrics implements MeterBinder {
+
+    private final ChatResponseCache cache;
+
+    public ChatResponseCacheMetrics(ChatResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("chat.response.cache.requests", cache, ChatResponseCache::hitCount)
+                .tag("result", "hit")
+                .description("Response cache lookups")
+                .register(registry);
+        FunctionCounter.builder("chat.response.cache.requests", cache, ChatResponseCache::missCount)
+                .tag("result", "miss")
+                .description("Response cache lookups")
+                .register(registry);
+        FunctionCounter.builder("chat.response.cache.requests", cache, ChatResponseCache::bypassCount)
+                .tag("result", "bypass")
+                .description("Response cache lookups")
+                .register(registry);
+        FunctionCounter.builder("chat.response.cache.evictions", cache, ChatResponseCache::sizeEvictionCount)
+                .tag("cause", "size")
+                .description("Entries removed from the response cache")
+                .register(registry);
+        FunctionCounter.builder("chat.response.cache.evictions", cache, ChatResponseCache::expirationCount)
+                .tag("cause", "expired")
+                .description("Entries removed from the response cache")
+                .register(registry);
+        FunctionCounter.builder("chat.response.cache.invalidations", cache, ChatResponseCache::invalidationCount)
+                .description("Times the response cache was dropped because a tool changed users")
+                .register(registry);
+        Gauge.builder("chat.response.cache.size", cache, ChatResponseCache::size)
+                .description("Answers currently held by the response cache")
+                .register(registry);
+    }
+}
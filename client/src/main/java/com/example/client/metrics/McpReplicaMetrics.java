@@ -0,0 +1,55 @@
+package com.example.client.metrics;
+
+import com.example.client.routing.McpReplica;
+import com.example.client.routing.ReplicaRouter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-connection routing state: calls in flight, moving latency average, calls, transport failures and
+ * ejections, tagged by MCP connection name.
+ */
+public class McpReplicaMetrics implements MeterBinder {
+
+    private final ReplicaRouter router;
+
+    public McpReplicaMetrics(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (McpReplica replica : router.replicas()) {
+            Gauge.builder("chat.mcp.connection.outstanding", replica, McpReplica::outstanding)
+                    .tag("connection", replica.name())
+                    .description("Tool calls in flight on the connection")
+                    .register(registry);
+            Gauge.builder("chat.mcp.connection.latency", replica,
+                            r -> r.latencyEwmaNanos() / TimeUnit.MILLISECONDS.toNanos(1))
+                    .tag("connection", replica.name())
+                    .baseUnit("milliseconds")
+                    .description("Moving average of tool-call latency on the connection")
+                    .register(registry);
+            Gauge.builder("chat.mcp.connection.ejected", replica, r -> r.isEjected(System.nanoTime()) ? 1 : 0)
+                    .tag("connection", replica.name())
+                    .description("1 while the connection is ejected after consecutive failures")
+                    .register(registry);
+            FunctionCounter.builder("chat.mcp.connection.calls", replica, McpReplica::callCount)
+                    .tag("connection", replica.name())
+                    .description("Tool calls routed to the connection")
+                    .register(registry);
+            FunctionCounter.builder("chat.mcp.connection.failures", replica, McpReplica::failureCount)
+                    .tag("connection", replica.name())
+                    .description("Tool calls that failed in transport on the connection")
+                    .register(registry);
+            FunctionCounter.builder("chat.mcp.connection.ejections", replica, McpReplica::ejectionCount)
+                    .tag("connection", replica.name())
+                    .description("Times the connection was ejected")
+                    .register(registry);
+        }
+    }
+}
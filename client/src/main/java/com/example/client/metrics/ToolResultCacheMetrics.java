@@ -0,0 +1,37 @@
+package com.example.client.metrics;
+
+import com.example.client.cache.ToolResultCaches;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes hit, miss and invalidation counters of the conversation-scoped tool-result caches.
+ */
+public class ToolResultCacheMetrics implements MeterBinder {
+
+    private final ToolResultCaches caches;
+
+    public ToolResultCacheMetrics(ToolResultCaches caches) {
+        this.caches = caches;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("chat.tool.cache.requests", caches, ToolResultCaches::hitCount)
+                .tag("result", "hit")
+                .description("Tool-result cache lookups")
+                .register(registry);
+        FunctionCounter.builder("chat.tool.cache.requests", caches, ToolResultCaches::missCount)
+                .tag("result", "miss")
+                .description("Tool-result cache lookups")
+                .register(registry);
+        FunctionCounter.builder("chat.tool.cache.invalidations", caches, ToolResultCaches::invalidationCount)
+                .description("Tool results dropped after a write tool")
+                .register(registry);
+        Gauge.builder("chat.tool.cache.conversations", caches, ToolResultCaches::conversationCount)
+                .description("Conversations whose tool results are kept between requests")
+                .register(registry);
+    }
+}
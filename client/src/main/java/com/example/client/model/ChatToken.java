@@ -0,0 +1,7 @@
+package com.example.client.model;
+
+/**
+ * One streamed piece of a chat answer. Sent as JSON so leading and trailing whitespace survives SSE framing.
+ */
+public record ChatToken(String content) {
+}
@@ -0,0 +1,120 @@
+package com.example.client.routing;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One MCP server connection serving as a replica of the tools it lists, with the state routing decisions
+ * are based on: calls in flight, a moving average of call latency, and passive health (consecutive transport
+ * failures and the ejection they led to).
+ */
+public class McpReplica {
+
+    private final McpSyncClient client;
+    private final String name;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder ejections = new LongAdder();
+
+    // Guarded by this
+    private double latencyEwmaNanos;
+    private boolean latencyMeasured;
+    private int consecutiveFailures;
+    private int ejectionsInARow;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+
+    McpReplica(McpSyncClient client, String name) {
+        this.client = client;
+        this.name = name;
+    }
+
+    public McpSyncClient client() {
+        return client;
+    }
+
+    /**
+     * @return the connection name, e.g. {@code server1}
+     */
+    public String name() {
+        return name;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    public long callCount() {
+        return calls.sum();
+    }
+
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    public long ejectionCount() {
+        return ejections.sum();
+    }
+
+    public synchronized double latencyEwmaNanos() {
+        return latencyEwmaNanos;
+    }
+
+    public synchronized boolean isEjected(long nowNanos) {
+        return ejected && ejectedUntilNanos - nowNanos > 0;
+    }
+
+    synchronized long ejectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+        calls.increment();
+    }
+
+    synchronized void succeeded(long latencyNanos, double smoothing) {
+        outstanding.decrementAndGet();
+        recordLatency(latencyNanos, smoothing);
+        consecutiveFailures = 0;
+        if (ejected && ejectedUntilNanos - System.nanoTime() <= 0) {
+            // Back in rotation and answering again
+            ejected = false;
+            ejectionsInARow = 0;
+        }
+    }
+
+    /**
+     * @return whether this failure ejected the replica
+     */
+    synchronized boolean failed(long latencyNanos, double smoothing, int failuresToEject,
+                                long baseEjectionNanos, long maxEjectionNanos) {
+        outstanding.decrementAndGet();
+        failures.increment();
+        recordLatency(latencyNanos, smoothing);
+        if (++consecutiveFailures < failuresToEject) {
+            return false;
+        }
+        consecutiveFailures = 0;
+        ejectionsInARow++;
+        ejections.increment();
+        // Each ejection in a row keeps the replica out longer
+        long ejectionNanos = Math.min(maxEjectionNanos, baseEjectionNanos * ejectionsInARow);
+        ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+        ejected = true;
+        return true;
+    }
+
+    private void recordLatency(long latencyNanos, double smoothing) {
+        if (latencyMeasured) {
+            latencyEwmaNanos += smoothing * (latencyNanos - latencyEwmaNanos);
+        } else {
+            latencyEwmaNanos = latencyNanos;
+            latencyMeasured = true;
+        }
+    }
+}
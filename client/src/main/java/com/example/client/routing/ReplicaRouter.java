@@ -0,0 +1,131 @@
+package com.example.client.routing;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes each tool call to one of the replicas that list the tool.
+ * <p>
+ * The replica with the fewest calls in flight wins, so a slow replica stops receiving work as soon as its
+ * calls pile up; ties go to the lower latency average, then rotate. A replica whose transport fails a number
+ * of times in a row is ejected for a while (longer after each ejection in a row) and only chosen again when
+ * every replica is ejected. Errors the tool itself reports are answers, not failures.
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private final List<McpReplica> replicas;
+    private final int failuresToEject;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final double latencySmoothing;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    /**
+     * @param failuresToEject  consecutive transport failures that eject a replica
+     * @param latencySmoothing weight of the newest call in the latency average, in (0, 1]
+     */
+    public ReplicaRouter(List<McpSyncClient> clients, int failuresToEject, long baseEjectionNanos,
+                         long maxEjectionNanos, double latencySmoothing) {
+        this.replicas = clients.stream()
+                .map(client -> new McpReplica(client, connectionName(client)))
+                .toList();
+        this.failuresToEject = Math.max(1, failuresToEject);
+        this.baseEjectionNanos = baseEjectionNanos;
+        this.maxEjectionNanos = Math.max(baseEjectionNanos, maxEjectionNanos);
+        this.latencySmoothing = latencySmoothing;
+    }
+
+    public List<McpReplica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Calls the tool on the chosen replica and records the outcome against it. A call the replica provably
+     * never received (the connection failed or the message was rejected) is sent to the next best replica;
+     * anything else, a timeout in particular, may have run and is not repeated.
+     */
+    public McpSchema.CallToolResult callTool(List<McpReplica> candidates, McpSchema.CallToolRequest request) {
+        List<McpReplica> remaining = new ArrayList<>(candidates);
+        while (true) {
+            McpReplica replica = choose(remaining);
+            replica.begin();
+            long start = System.nanoTime();
+            try {
+                McpSchema.CallToolResult result = replica.client().callTool(request);
+                replica.succeeded(System.nanoTime() - start, latencySmoothing);
+                return result;
+            } catch (RuntimeException e) {
+                if (replica.failed(System.nanoTime() - start, latencySmoothing, failuresToEject,
+                        baseEjectionNanos, maxEjectionNanos)) {
+                    logger.warn("Ejected MCP connection {} after {} consecutive failures, last: {}",
+                            replica.name(), failuresToEject, e.toString());
+                }
+                remaining.remove(replica);
+                if (remaining.isEmpty() || !notDelivered(e)) {
+                    throw e;
+                }
+                logger.debug("Retrying {} on another connection after {} failed: {}",
+                        request.name(), replica.name(), e.toString());
+            }
+        }
+    }
+
+    McpReplica choose(List<McpReplica> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        long now = System.nanoTime();
+        int offset = Math.floorMod(rotation.getAndIncrement(), candidates.size());
+        McpReplica best = null;
+        McpReplica soonestBack = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            McpReplica candidate = candidates.get((offset + i) % candidates.size());
+            if (candidate.isEjected(now)) {
+                if (soonestBack == null || candidate.ejectedUntilNanos() - soonestBack.ejectedUntilNanos() < 0) {
+                    soonestBack = candidate;
+                }
+            } else if (best == null || isBetter(candidate, best)) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : soonestBack;
+    }
+
+    private static boolean isBetter(McpReplica candidate, McpReplica best) {
+        int outstanding = Integer.compare(candidate.outstanding(), best.outstanding());
+        if (outstanding != 0) {
+            return outstanding < 0;
+        }
+        return candidate.latencyEwmaNanos() < best.latencyEwmaNanos();
+    }
+
+    private static boolean notDelivered(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            // The transport POSTs each message and reads the response from the SSE stream, so an error
+            // response to the POST means the server did not take the message
+            if (cause instanceof WebClientRequestException || cause instanceof WebClientResponseException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spring AI names each client {@code <client name> - <connection name>}.
+     */
+    private static String connectionName(McpSyncClient client) {
+        String name = client.getClientInfo().name();
+        int separator = name.lastIndexOf(" - ");
+        return separator >= 0 ? name.substring(separator + 3) : name;
+    }
+}
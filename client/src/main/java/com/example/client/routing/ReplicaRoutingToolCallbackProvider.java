@@ -0,0 +1,57 @@
+package com.example.client.routing;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool callbacks for all MCP connections, with tools of the same name on several connections merged into one
+ * {@link RoutedToolCallback} whose calls the {@link ReplicaRouter} spreads across them.
+ * <p>
+ * Every call to {@link #getToolCallbacks()} lists the tools of each connection again. A connection that
+ * cannot list its tools is left out until the next listing instead of failing the others.
+ */
+public class ReplicaRoutingToolCallbackProvider implements ToolCallbackProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingToolCallbackProvider.class);
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingToolCallbackProvider(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        Map<String, McpSchema.Tool> tools = new LinkedHashMap<>();
+        Map<String, List<McpReplica>> replicasByTool = new LinkedHashMap<>();
+        for (McpReplica replica : router.replicas()) {
+            List<McpSchema.Tool> listed;
+            try {
+                listed = replica.client().listTools().tools();
+            } catch (RuntimeException e) {
+                logger.warn("Could not list the tools of MCP connection {}: {}", replica.name(), e.toString());
+                continue;
+            }
+            for (McpSchema.Tool tool : listed) {
+                McpSchema.Tool first = tools.putIfAbsent(tool.name(), tool);
+                if (first != null && !first.inputSchema().equals(tool.inputSchema())) {
+                    logger.warn("Tool {} on MCP connection {} takes different arguments than on {}; routing "
+                            + "with the first definition", tool.name(), replica.name(),
+                            replicasByTool.get(tool.name()).get(0).name());
+                }
+                replicasByTool.computeIfAbsent(tool.name(), name -> new ArrayList<>()).add(replica);
+            }
+        }
+        return tools.values().stream()
+                .map(tool -> new RoutedToolCallback(tool, replicasByTool.get(tool.name()), router))
+                .toArray(ToolCallback[]::new);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.client.routing;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tool listed by one or more MCP connections, exposed to the model once under its server-side name and
+ * called on a replica chosen per call. Arguments and results are converted as Spring AI's
+ * {@code SyncMcpToolCallback} does.
+ */
+class RoutedToolCallback implements ToolCallback {
+
+    private final ToolDefinition toolDefinition;
+    private final List<McpReplica> replicas;
+    private final ReplicaRouter router;
+
+    RoutedToolCallback(McpSchema.Tool tool, List<McpReplica> replicas, ReplicaRouter router) {
+        this.toolDefinition = ToolDefinition.builder()
+                .name(tool.name())
+                .description(tool.description())
+                .inputSchema(ModelOptionsUtils.toJsonString(tool.inputSchema()))
+                .build();
+        this.replicas = List.copyOf(replicas);
+        this.router = router;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
+    @Override
+    public String call(String toolInput) {
+        Map<String, Object> arguments = ModelOptionsUtils.jsonToMap(toolInput);
+        McpSchema.CallToolResult result = router.callTool(replicas,
+                new McpSchema.CallToolRequest(toolDefinition.name(), arguments));
+        if (Boolean.TRUE.equals(result.isError())) {
+            throw new IllegalStateException("Error calling tool: " + result.content());
+        }
+        return ModelOptionsUtils.toJsonString(result.content());
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        // The tool context only carries client-side state; nothing of it is sent to the server
+        return call(toolInput);
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.server.accessors.accessorsImpl;
 
 import com.example.server.accessors.ThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
+@Slf4j
 public class RequestAttributesAccessor implements ThreadLocalAccessor<RequestAttributes> {
 
     private static final InheritableThreadLocal<RequestAttributes> requestAttributesHolder = new InheritableThreadLocal<>();
@@ -37,7 +39,7 @@ public class RequestAttributesAccessor implements ThreadLocalAccessor<RequestAtt
             try {
                 RequestContextHolder.setRequestAttributes(value);
             } catch (Exception e) {
-                System.err.println("Failed to set RequestAttributes: " + e.getMessage());
+                log.warn("Failed to set RequestAttributes: {}", e.getMessage());
             }
         }
     }
@@ -0,0 +1,356 @@
+package com.example.server.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, TTL-based LRU cache keyed by a primitive {@code int}.
+ * <p>
+ * Keys are never boxed: every segment keeps its entries in parallel arrays and resolves them through an
+ * open-addressing table (linear probing, backward-shift deletion). The key space is split across
+ * independently locked segments so concurrent tool calls for different ids rarely contend.
+ * <p>
+ * Values come from two places: writes ({@link #put}, {@link #invalidate}) that know the current value, and
+ * fills with a value read from the source. A read that was in flight while the key was written may carry the
+ * value from before the write, so {@link #fill} only stores it when no write happened since the read began
+ * ({@link #writeVersion}).
+ */
+public class IntKeyedLruCache<V> {
+
+    private static final int NIL = -1;
+    // Write versions are kept per stripe of keys rather than per key, so ids that are not cached need none;
+    // a write to another key of the stripe only costs a skipped fill
+    private static final int WRITE_VERSION_STRIPES = 64;
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxEntries upper bound on cached entries; {@code 0} disables caching
+     * @param ttlNanos   time-to-live of an entry after it was written; {@code 0} means no expiry
+     */
+    @SuppressWarnings("unchecked")
+    public IntKeyedLruCache(int maxEntries, long ttlNanos) {
+        int segmentCount = maxEntries <= 0 ? 1 : Math.min(16, Integer.highestOneBit(maxEntries));
+        int perSegment = Math.max(0, maxEntries) / segmentCount;
+        int remainder = Math.max(0, maxEntries) % segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(i < remainder ? perSegment + 1 : perSegment);
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * @return the cached value, or {@code null} when absent or expired
+     */
+    public V get(int key) {
+        int hash = hash(key);
+        V value = segmentFor(hash).get(key, hash, System.nanoTime(), this);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value a write left the key with.
+     */
+    public void put(int key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        int hash = hash(key);
+        segmentFor(hash).write(key, hash, value, expiresAt(), this);
+    }
+
+    /**
+     * @return the key's write version, to be passed to {@link #fill} with the value read from here on
+     */
+    public long writeVersion(int key) {
+        int hash = hash(key);
+        return segmentFor(hash).writeVersion(hash);
+    }
+
+    /**
+     * Stores a value read from the source, unless the key was written or invalidated since
+     * {@code writeVersion} was taken.
+     *
+     * @return whether the value was stored
+     */
+    public boolean fill(int key, V value, long writeVersion) {
+        if (value == null) {
+            return false;
+        }
+        int hash = hash(key);
+        return segmentFor(hash).fill(key, hash, value, expiresAt(), writeVersion, this);
+    }
+
+    public void invalidate(int key) {
+        int hash = hash(key);
+        segmentFor(hash).invalidate(key, hash);
+    }
+
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long sizeEvictionCount() {
+        return sizeEvictions.sum();
+    }
+
+    public long expirationCount() {
+        return expirations.sum();
+    }
+
+    private long expiresAt() {
+        return ttlNanos > 0 ? System.nanoTime() + ttlNanos : Long.MAX_VALUE;
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Segment<V> {
+
+        private final int capacity;
+        private final int[] keys;
+        private final Object[] values;
+        private final long[] expiresAt;
+        private final int[] prev;
+        private final int[] next;
+        // entry index + 1; 0 marks an empty slot
+        private final int[] table;
+        private final int mask;
+        private final long[] writeVersions = new long[WRITE_VERSION_STRIPES];
+
+        private int head = NIL;
+        private int tail = NIL;
+        private int freeHead;
+        private int size;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.keys = new int[capacity];
+            this.values = new Object[capacity];
+            this.expiresAt = new long[capacity];
+            this.prev = new int[capacity];
+            this.next = new int[capacity];
+            int tableSize = capacity == 0 ? 1 : Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+            this.table = new int[tableSize];
+            this.mask = tableSize - 1;
+            resetFreeList();
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(int key, int hash, long now, IntKeyedLruCache<V> owner) {
+            int slot = findSlot(key, hash);
+            if (slot == NIL) {
+                return null;
+            }
+            int entry = table[slot] - 1;
+            if (expiresAt[entry] - now <= 0) {
+                removeEntry(slot, entry);
+                owner.expirations.increment();
+                return null;
+            }
+            moveToFront(entry);
+            return (V) values[entry];
+        }
+
+        synchronized void write(int key, int hash, V value, long expiry, IntKeyedLruCache<V> owner) {
+            writeVersions[stripe(hash)]++;
+            put(key, hash, value, expiry, owner);
+        }
+
+        synchronized long writeVersion(int hash) {
+            return writeVersions[stripe(hash)];
+        }
+
+        synchronized boolean fill(int key, int hash, V value, long expiry, long writeVersion,
+                                  IntKeyedLruCache<V> owner) {
+            if (writeVersions[stripe(hash)] != writeVersion) {
+                return false;
+            }
+            put(key, hash, value, expiry, owner);
+            return capacity > 0;
+        }
+
+        private void put(int key, int hash, V value, long expiry, IntKeyedLruCache<V> owner) {
+            if (capacity == 0) {
+                return;
+            }
+            int slot = findSlot(key, hash);
+            if (slot != NIL) {
+                int entry = table[slot] - 1;
+                values[entry] = value;
+                expiresAt[entry] = expiry;
+                moveToFront(entry);
+                return;
+            }
+            if (size == capacity) {
+                int victim = tail;
+                removeEntry(findSlot(keys[victim], IntKeyedLruCache.hash(keys[victim])), victim);
+                owner.sizeEvictions.increment();
+            }
+            int entry = freeHead;
+            freeHead = next[entry];
+            keys[entry] = key;
+            values[entry] = value;
+            expiresAt[entry] = expiry;
+            linkFirst(entry);
+            int insertAt = hash & mask;
+            while (table[insertAt] != 0) {
+                insertAt = (insertAt + 1) & mask;
+            }
+            table[insertAt] = entry + 1;
+            size++;
+        }
+
+        synchronized void invalidate(int key, int hash) {
+            writeVersions[stripe(hash)]++;
+            int slot = findSlot(key, hash);
+            if (slot != NIL) {
+                removeEntry(slot, table[slot] - 1);
+            }
+        }
+
+        synchronized void clear() {
+            for (int i = 0; i < writeVersions.length; i++) {
+                writeVersions[i]++;
+            }
+            Arrays.fill(table, 0);
+            Arrays.fill(values, null);
+            head = NIL;
+            tail = NIL;
+            size = 0;
+            resetFreeList();
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private static int stripe(int hash) {
+            return hash & (WRITE_VERSION_STRIPES - 1);
+        }
+
+        private int findSlot(int key, int hash) {
+            int slot = hash & mask;
+            int candidate;
+            while ((candidate = table[slot]) != 0) {
+                if (keys[candidate - 1] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NIL;
+        }
+
+        private void removeEntry(int slot, int entry) {
+            deleteSlot(slot);
+            unlink(entry);
+            values[entry] = null;
+            next[entry] = freeHead;
+            freeHead = entry;
+            size--;
+        }
+
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        private void deleteSlot(int slot) {
+            int hole = slot;
+            int probe = slot;
+            table[hole] = 0;
+            while (true) {
+                probe = (probe + 1) & mask;
+                int candidate = table[probe];
+                if (candidate == 0) {
+                    return;
+                }
+                int home = IntKeyedLruCache.hash(keys[candidate - 1]) & mask;
+                boolean staysPut = hole <= probe
+                        ? hole < home && home <= probe
+                        : hole < home || home <= probe;
+                if (!staysPut) {
+                    table[hole] = candidate;
+                    table[probe] = 0;
+                    hole = probe;
+                }
+            }
+        }
+
+        private void moveToFront(int entry) {
+            if (head != entry) {
+                unlink(entry);
+                linkFirst(entry);
+            }
+        }
+
+        private void linkFirst(int entry) {
+            prev[entry] = NIL;
+            next[entry] = head;
+            if (head != NIL) {
+                prev[head] = entry;
+            }
+            head = entry;
+            if (tail == NIL) {
+                tail = entry;
+            }
+        }
+
+        private void unlink(int entry) {
+            int p = prev[entry];
+            int n = next[entry];
+            if (p != NIL) {
+                next[p] = n;
+            } else {
+                head = n;
+            }
+            if (n != NIL) {
+                prev[n] = p;
+            } else {
+                tail = p;
+            }
+        }
+
+        private void resetFreeList() {
+            for (int i = 0; i < capacity; i++) {
+                next[i] = i + 1 < capacity ? i + 1 : NIL;
+            }
+            freeHead = capacity == 0 ? NIL : 0;
+        }
+    }
+}
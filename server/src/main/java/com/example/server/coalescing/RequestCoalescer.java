@@ -0,0 +1,138 @@
+package com.example.server.coalescing;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of tool calls: while a call for a given tool and argument list is in flight,
+ * identical concurrent calls wait for it and receive the same result (or the same exception) instead of
+ * issuing their own upstream request.
+ * <p>
+ * Only in-flight calls are shared; once the leading call completes, the next call executes again. Blocking
+ * ({@link #execute}) and non-blocking ({@link #executeAsync}) calls share the same flights.
+ */
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public RequestCoalescer(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String tool, List<?> args, Supplier<T> call) {
+        if (!enabled) {
+            executed.increment();
+            return call.get();
+        }
+
+        CallKey key = new CallKey(tool, args);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            collapsed.increment();
+            return (T) await(leader);
+        }
+
+        executed.increment();
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: identical concurrent calls get a future of the leading call's
+     * result instead of waiting for it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String tool, List<?> args,
+                                                 Supplier<? extends CompletionStage<T>> call) {
+        if (!enabled) {
+            executed.increment();
+            return call.get().toCompletableFuture();
+        }
+
+        CallKey key = new CallKey(tool, args);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            collapsed.increment();
+            // A copy, so a caller completing or cancelling its future cannot affect the others
+            return (CompletableFuture<T>) leader.copy();
+        }
+
+        executed.increment();
+        try {
+            call.get().whenComplete((result, failure) -> {
+                if (failure != null) {
+                    flight.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+                } else {
+                    flight.complete(result);
+                }
+                inFlight.remove(key, flight);
+            });
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            inFlight.remove(key, flight);
+            throw e;
+        }
+        return (CompletableFuture<T>) flight.copy();
+    }
+
+    /**
+     * Detaches the in-flight call for the tool and arguments, if any, after a write made its result stale:
+     * identical calls from here on execute anew. Callers already sharing the call keep its result.
+     */
+    public void forget(String tool, List<?> args) {
+        if (enabled) {
+            inFlight.remove(new CallKey(tool, args));
+        }
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long collapsedCount() {
+        return collapsed.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Re-throw the leader's exception as-is so every caller sees the same failure
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private record CallKey(String tool, List<?> args) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.server.compact;
+
+import java.util.Map;
+
+/**
+ * Memory-lean form of {@link com.example.server.model.User} for the server's own storage (cache, mirror).
+ * <p>
+ * Low-cardinality strings are {@link StringPool} codes, repetitive ones are interned, age/height/weight
+ * are primitives and the nested maps are flattened into fixed records. Each record keeps a bitmask of the
+ * keys the source map contained, and anything that does not fit the fixed layout (unknown keys, unexpected
+ * value types, dictionary overflow) is carried in {@code extras}, so {@link CompactUserCodec} converts
+ * back to an equal {@code User}.
+ */
+public record CompactUser(
+        int id,
+        int age,
+        double height,
+        double weight,
+        String firstName,
+        String lastName,
+        String maidenName,
+        String email,
+        String phone,
+        String username,
+        String password,
+        String birthDate,
+        String image,
+        String ip,
+        String macAddress,
+        String university,
+        String ein,
+        String ssn,
+        String userAgent,
+        char gender,
+        char bloodGroup,
+        char eyeColor,
+        char role,
+        Hair hair,
+        Address address,
+        Bank bank,
+        Company company,
+        Crypto crypto,
+        Map<String, Object> extras) {
+
+    /** {@code age} of a user without one. */
+    public static final int NO_AGE = Integer.MIN_VALUE;
+
+    public record Hair(char color, char type, int present, Map<String, Object> extras) {
+    }
+
+    public record Address(String address, String city, char state, char stateCode, String postalCode,
+                          double lat, double lng, char country, int present, Map<String, Object> extras) {
+    }
+
+    public record Bank(String cardExpire, String cardNumber, char cardType, char currency, String iban,
+                       int present, Map<String, Object> extras) {
+    }
+
+    public record Company(char department, String name, String title, Address address,
+                          int present, Map<String, Object> extras) {
+    }
+
+    public record Crypto(char coin, String wallet, char network, int present, Map<String, Object> extras) {
+    }
+}
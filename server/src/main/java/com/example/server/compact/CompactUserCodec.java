@@ -0,0 +1,346 @@
+package com.example.server.compact;
+
+import com.example.server.model.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts between {@link User} and {@link CompactUser}; {@code decode(encode(user))} equals {@code user}.
+ */
+public class CompactUserCodec {
+
+    // Key order fixes the presence bit of each key
+    private static final String[] HAIR_KEYS = {"color", "type"};
+    private static final String[] ADDRESS_KEYS = {"address", "city", "state", "stateCode", "postalCode", "coordinates", "country"};
+    private static final String[] BANK_KEYS = {"cardExpire", "cardNumber", "cardType", "currency", "iban"};
+    private static final String[] COMPANY_KEYS = {"department", "name", "title", "address"};
+    private static final String[] CRYPTO_KEYS = {"coin", "wallet", "network"};
+    private static final int COORDINATES = 5;
+
+    private final StringPool pool;
+
+    public CompactUserCodec(StringPool pool) {
+        this.pool = pool;
+    }
+
+    public StringPool pool() {
+        return pool;
+    }
+
+    public CompactUser encode(User user) {
+        if (user == null) {
+            return null;
+        }
+        Map<String, Object> extras = new LinkedHashMap<>();
+        return new CompactUser(
+                user.getId(),
+                user.getAge() != null ? user.getAge() : CompactUser.NO_AGE,
+                user.getHeight() != null ? user.getHeight() : Double.NaN,
+                user.getWeight() != null ? user.getWeight() : Double.NaN,
+                user.getFirstName(),
+                user.getLastName(),
+                user.getMaidenName(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getUsername(),
+                user.getPassword(),
+                user.getBirthDate(),
+                user.getImage(),
+                user.getIp(),
+                user.getMacAddress(),
+                pool.intern(user.getUniversity()),
+                user.getEin(),
+                user.getSsn(),
+                pool.intern(user.getUserAgent()),
+                code("gender", user.getGender(), extras),
+                code("bloodGroup", user.getBloodGroup(), extras),
+                code("eyeColor", user.getEyeColor(), extras),
+                code("role", user.getRole(), extras),
+                encodeHair(user.getHair()),
+                encodeAddress(user.getAddress()),
+                encodeBank(user.getBank()),
+                encodeCompany(user.getCompany()),
+                encodeCrypto(user.getCrypto()),
+                extras.isEmpty() ? null : Map.copyOf(extras));
+    }
+
+    public User decode(CompactUser compact) {
+        if (compact == null) {
+            return null;
+        }
+        Map<String, Object> extras = compact.extras();
+        User user = new User();
+        user.setId(compact.id());
+        user.setAge(compact.age() != CompactUser.NO_AGE ? compact.age() : null);
+        user.setHeight(Double.isNaN(compact.height()) ? null : compact.height());
+        user.setWeight(Double.isNaN(compact.weight()) ? null : compact.weight());
+        user.setFirstName(compact.firstName());
+        user.setLastName(compact.lastName());
+        user.setMaidenName(compact.maidenName());
+        user.setEmail(compact.email());
+        user.setPhone(compact.phone());
+        user.setUsername(compact.username());
+        user.setPassword(compact.password());
+        user.setBirthDate(compact.birthDate());
+        user.setImage(compact.image());
+        user.setIp(compact.ip());
+        user.setMacAddress(compact.macAddress());
+        user.setUniversity(compact.university());
+        user.setEin(compact.ein());
+        user.setSsn(compact.ssn());
+        user.setUserAgent(compact.userAgent());
+        user.setGender(value("gender", compact.gender(), extras));
+        user.setBloodGroup(value("bloodGroup", compact.bloodGroup(), extras));
+        user.setEyeColor(value("eyeColor", compact.eyeColor(), extras));
+        user.setRole(value("role", compact.role(), extras));
+        user.setHair(decodeHair(compact.hair()));
+        user.setAddress(decodeAddress(compact.address()));
+        user.setBank(decodeBank(compact.bank()));
+        user.setCompany(decodeCompany(compact.company()));
+        user.setCrypto(decodeCrypto(compact.crypto()));
+        return user;
+    }
+
+    private char code(String field, String value, Map<String, Object> extras) {
+        char code = pool.code(value);
+        if (code == StringPool.OVERFLOW) {
+            extras.put(field, value);
+        }
+        return code;
+    }
+
+    private String value(String field, char code, Map<String, Object> extras) {
+        return code == StringPool.OVERFLOW ? (String) extras.get(field) : pool.value(code);
+    }
+
+    private CompactUser.Hair encodeHair(Map<String, String> hair) {
+        if (hair == null) {
+            return null;
+        }
+        Flattener f = new Flattener(hair, HAIR_KEYS);
+        return new CompactUser.Hair(f.code(0), f.code(1), f.present, f.extras());
+    }
+
+    private Map<String, String> decodeHair(CompactUser.Hair hair) {
+        if (hair == null) {
+            return null;
+        }
+        Unflattener u = new Unflattener(HAIR_KEYS, hair.present());
+        u.put(0, pool.value(hair.color()));
+        u.put(1, pool.value(hair.type()));
+        return u.finish(hair.extras());
+    }
+
+    private CompactUser.Address encodeAddress(Map<String, ?> address) {
+        if (address == null) {
+            return null;
+        }
+        Flattener f = new Flattener(address, ADDRESS_KEYS);
+        String street = f.string(0);
+        String city = pool.intern(f.string(1));
+        char state = f.code(2);
+        char stateCode = f.code(3);
+        String postalCode = f.string(4);
+        double lat = Double.NaN;
+        double lng = Double.NaN;
+        // Only the usual {lat, lng} pair of doubles is flattened; anything else stays in extras
+        if (address.get(ADDRESS_KEYS[COORDINATES]) instanceof Map<?, ?> coordinates && coordinates.size() == 2
+                && coordinates.get("lat") instanceof Double latValue && coordinates.get("lng") instanceof Double lngValue) {
+            lat = latValue;
+            lng = lngValue;
+            f.present |= 1 << COORDINATES;
+        }
+        char country = f.code(6);
+        return new CompactUser.Address(street, city, state, stateCode, postalCode, lat, lng, country, f.present, f.extras());
+    }
+
+    private Map<String, Object> decodeAddress(CompactUser.Address address) {
+        if (address == null) {
+            return null;
+        }
+        Unflattener u = new Unflattener(ADDRESS_KEYS, address.present());
+        u.put(0, address.address());
+        u.put(1, address.city());
+        u.put(2, pool.value(address.state()));
+        u.put(3, pool.value(address.stateCode()));
+        u.put(4, address.postalCode());
+        if (u.has(COORDINATES)) {
+            Map<String, Object> coordinates = new LinkedHashMap<>(4);
+            coordinates.put("lat", address.lat());
+            coordinates.put("lng", address.lng());
+            u.put(COORDINATES, coordinates);
+        }
+        u.put(6, pool.value(address.country()));
+        return u.finish(address.extras());
+    }
+
+    private CompactUser.Bank encodeBank(Map<String, ?> bank) {
+        if (bank == null) {
+            return null;
+        }
+        Flattener f = new Flattener(bank, BANK_KEYS);
+        return new CompactUser.Bank(pool.intern(f.string(0)), f.string(1), f.code(2), f.code(3), f.string(4),
+                f.present, f.extras());
+    }
+
+    private Map<String, Object> decodeBank(CompactUser.Bank bank) {
+        if (bank == null) {
+            return null;
+        }
+        Unflattener u = new Unflattener(BANK_KEYS, bank.present());
+        u.put(0, bank.cardExpire());
+        u.put(1, bank.cardNumber());
+        u.put(2, pool.value(bank.cardType()));
+        u.put(3, pool.value(bank.currency()));
+        u.put(4, bank.iban());
+        return u.finish(bank.extras());
+    }
+
+    private CompactUser.Company encodeCompany(Map<String, ?> company) {
+        if (company == null) {
+            return null;
+        }
+        Flattener f = new Flattener(company, COMPANY_KEYS);
+        char department = f.code(0);
+        String name = f.string(1);
+        String title = pool.intern(f.string(2));
+        CompactUser.Address address = null;
+        if (company.get(COMPANY_KEYS[3]) instanceof Map<?, ?> nested) {
+            @SuppressWarnings("unchecked")
+            Map<String, ?> nestedAddress = (Map<String, ?>) nested;
+            address = encodeAddress(nestedAddress);
+            f.present |= 1 << 3;
+        }
+        return new CompactUser.Company(department, name, title, address, f.present, f.extras());
+    }
+
+    private Map<String, Object> decodeCompany(CompactUser.Company company) {
+        if (company == null) {
+            return null;
+        }
+        Unflattener u = new Unflattener(COMPANY_KEYS, company.present());
+        u.put(0, pool.value(company.department()));
+        u.put(1, company.name());
+        u.put(2, company.title());
+        u.put(3, decodeAddress(company.address()));
+        return u.finish(company.extras());
+    }
+
+    private CompactUser.Crypto encodeCrypto(Map<String, String> crypto) {
+        if (crypto == null) {
+            return null;
+        }
+        Flattener f = new Flattener(crypto, CRYPTO_KEYS);
+        return new CompactUser.Crypto(f.code(0), f.string(1), f.code(2), f.present, f.extras());
+    }
+
+    private Map<String, String> decodeCrypto(CompactUser.Crypto crypto) {
+        if (crypto == null) {
+            return null;
+        }
+        Unflattener u = new Unflattener(CRYPTO_KEYS, crypto.present());
+        u.put(0, pool.value(crypto.coin()));
+        u.put(1, crypto.wallet());
+        u.put(2, pool.value(crypto.network()));
+        return u.finish(crypto.extras());
+    }
+
+    /**
+     * Reads the fixed keys of a nested map, setting a presence bit for every key it takes over.
+     */
+    private final class Flattener {
+
+        private final Map<String, ?> source;
+        private final String[] keys;
+        private int present;
+
+        Flattener(Map<String, ?> source, String[] keys) {
+            this.source = source;
+            this.keys = keys;
+        }
+
+        String string(int bit) {
+            Object value = source.get(keys[bit]);
+            if ((value == null && source.containsKey(keys[bit])) || value instanceof String) {
+                present |= 1 << bit;
+                return (String) value;
+            }
+            return null;
+        }
+
+        char code(int bit) {
+            Object value = source.get(keys[bit]);
+            if (value == null) {
+                if (source.containsKey(keys[bit])) {
+                    present |= 1 << bit;
+                }
+                return StringPool.NULL;
+            }
+            if (value instanceof String s) {
+                char code = pool.code(s);
+                if (code != StringPool.OVERFLOW) {
+                    present |= 1 << bit;
+                    return code;
+                }
+            }
+            return StringPool.NULL;
+        }
+
+        /**
+         * @return the entries not taken over by the fixed layout, or {@code null}
+         */
+        Map<String, Object> extras() {
+            Map<String, Object> extras = null;
+            for (Map.Entry<String, ?> entry : source.entrySet()) {
+                int bit = indexOf(keys, entry.getKey());
+                if (bit < 0 || (present & (1 << bit)) == 0) {
+                    if (extras == null) {
+                        extras = new LinkedHashMap<>();
+                    }
+                    extras.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return extras;
+        }
+    }
+
+    private static final class Unflattener {
+
+        private final String[] keys;
+        private final int present;
+        private final Map<String, Object> map = new LinkedHashMap<>();
+
+        Unflattener(String[] keys, int present) {
+            this.keys = keys;
+            this.present = present;
+        }
+
+        boolean has(int bit) {
+            return (present & (1 << bit)) != 0;
+        }
+
+        void put(int bit, Object value) {
+            if (has(bit)) {
+                map.put(keys[bit], value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        <V> Map<String, V> finish(Map<String, Object> extras) {
+            if (extras != null) {
+                map.putAll(extras);
+            }
+            return (Map<String, V>) map;
+        }
+    }
+
+    private static int indexOf(String[] keys, String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.server.compact;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dictionary codes and canonical instances for repetitive user strings.
+ * <p>
+ * {@link #code} maps a low-cardinality value (gender, role, country, ...) to a {@code char}, so a
+ * compact user stores two bytes instead of a reference; code {@code 0} is {@code null} and
+ * {@link #OVERFLOW} is returned once the dictionary is full. {@link #intern} returns one shared
+ * instance per distinct value for medium-cardinality strings, up to a bound.
+ */
+public class StringPool {
+
+    public static final char NULL = 0;
+    public static final char OVERFLOW = Character.MAX_VALUE;
+
+    private final ConcurrentMap<String, Character> codes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> interned = new ConcurrentHashMap<>();
+    private final int maxInterned;
+    private volatile String[] values = new String[64];
+    private int size = 1;
+
+    public StringPool(int maxInterned) {
+        this.maxInterned = maxInterned;
+    }
+
+    public char code(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Character code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == OVERFLOW) {
+                return OVERFLOW;
+            }
+            String[] current = values;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, Math.min(current.length * 2, OVERFLOW));
+            }
+            current[size] = value;
+            values = current;
+            codes.put(value, (char) size);
+            return (char) size++;
+        }
+    }
+
+    /**
+     * @return the value for a code handed out by {@link #code}; {@code null} for {@link #NULL}
+     */
+    public String value(char code) {
+        return code == NULL ? null : values[code];
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = interned.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (interned.size() >= maxInterned) {
+            return value;
+        }
+        canonical = interned.putIfAbsent(value, value);
+        return canonical != null ? canonical : value;
+    }
+
+    public int codeCount() {
+        return codes.size();
+    }
+
+    public int internedCount() {
+        return interned.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Fan-out limits of the {@code getUsersByIds} batch tool.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.batch")
+public class BatchProperties {
+
+    /**
+     * Maximum number of ids fetched concurrently for a single batch call.
+     */
+    private int maxConcurrency = 8;
+
+    /**
+     * Maximum number of ids accepted by a single batch call.
+     */
+    private int maxIds = 100;
+}
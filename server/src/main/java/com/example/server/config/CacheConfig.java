@@ -0,0 +1,46 @@
+package com.example.server.config;
+
+import com.example.server.cache.IntKeyedLruCache;
+import com.example.server.coalescing.RequestCoalescer;
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.compact.StringPool;
+import com.example.server.metrics.RequestCoalescerMetrics;
+import com.example.server.metrics.UserCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({UserCacheProperties.class, CoalescingProperties.class})
+public class CacheConfig {
+
+    // Bounds the interned university/title/city/... strings shared by all compact users
+    private static final int MAX_INTERNED_STRINGS = 65_536;
+
+    @Bean
+    public CompactUserCodec compactUserCodec() {
+        return new CompactUserCodec(new StringPool(MAX_INTERNED_STRINGS));
+    }
+
+    @Bean
+    public IntKeyedLruCache<CompactUser> userCache(UserCacheProperties properties) {
+        int maxEntries = properties.isEnabled() ? properties.getMaxEntries() : 0;
+        return new IntKeyedLruCache<>(maxEntries, properties.getTtl().toNanos());
+    }
+
+    @Bean
+    public UserCacheMetrics userCacheMetrics(IntKeyedLruCache<CompactUser> userCache) {
+        return new UserCacheMetrics(userCache);
+    }
+
+    @Bean
+    public RequestCoalescer requestCoalescer(CoalescingProperties properties) {
+        return new RequestCoalescer(properties.isEnabled());
+    }
+
+    @Bean
+    public RequestCoalescerMetrics requestCoalescerMetrics(RequestCoalescer requestCoalescer) {
+        return new RequestCoalescerMetrics(requestCoalescer);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Single-flight coalescing of identical concurrent tool calls in {@code UserService}.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+}
@@ -0,0 +1,23 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * How tools get their thread-bound contexts restored.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.context")
+public class ContextRestorationProperties {
+
+    /**
+     * {@code EAGER} restores every context on each tool call; {@code LAZY} restores only what the tool
+     * declares with {@code @RequiresContext} and the rest on first access.
+     */
+    private Mode restoration = Mode.LAZY;
+
+    public enum Mode {
+        EAGER,
+        LAZY
+    }
+}
@@ -2,16 +2,23 @@ package com.example.server.config;
 
 import com.example.server.accessors.ThreadLocalAccessor;
 import com.example.server.context.ContextPropagationManager;
+import com.example.server.context.ContextSnapshot;
+import com.example.server.metrics.CountingRejectedExecutionHandler;
+import com.example.server.metrics.TaskExecutorMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
+@EnableConfigurationProperties({ExecutorProperties.class, BatchProperties.class})
 public class ExecutorConfig {
 
     @Bean
@@ -22,14 +29,10 @@ public class ExecutorConfig {
     @Bean
     public TaskDecorator contextPropagatingTaskDecorator(ContextPropagationManager contextManager) {
         return runnable -> {
-            System.out.println("TaskDecorator.decorate() called - Thread: " + Thread.currentThread().getName());
-
             // Capture ALL contexts from current thread (main request thread)
-            Map<String, Object> capturedContext = contextManager.captureContext();
-            System.out.println("Captured context keys: " + capturedContext.keySet());
+            ContextSnapshot capturedContext = contextManager.captureContext();
 
             return () -> {
-                System.out.println("TaskDecorator lambda executing - Thread: " + Thread.currentThread().getName());
                 try {
                     // Restore ALL contexts in the new async thread
                     contextManager.restoreContext(capturedContext);
@@ -43,14 +46,37 @@ public class ExecutorConfig {
     }
 
     @Bean
-    public Executor taskExecutor(TaskDecorator contextPropagatingTaskDecorator) {
+    public Executor taskExecutor(TaskDecorator contextPropagatingTaskDecorator, ExecutorProperties properties) {
+        if (properties.getMode() == ExecutorProperties.Mode.VIRTUAL) {
+            return virtualThreadExecutor(contextPropagatingTaskDecorator, properties);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setThreadNamePrefix("tool-exec-");
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setRejectedExecutionHandler(new CountingRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy()));
         executor.setTaskDecorator(contextPropagatingTaskDecorator);
         executor.initialize();
         return executor;
     }
+
+    @Bean
+    public TaskExecutorMetrics taskExecutorMetrics(@Qualifier("taskExecutor") Executor taskExecutor) {
+        return new TaskExecutorMetrics("taskExecutor", taskExecutor);
+    }
+
+    // Blocking upstream calls park the virtual thread instead of holding a pool slot; the same
+    // decorator restores and clears the captured contexts around every task
+    private Executor virtualThreadExecutor(TaskDecorator contextPropagatingTaskDecorator, ExecutorProperties properties) {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("tools.executor.mode=VIRTUAL requires Java 21+, running on "
+                    + Runtime.version() + ". Build and run the server with the java21 profile (-Pjava21).");
+        }
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tool-exec-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(properties.getVirtualConcurrencyLimit());
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+        return executor;
+    }
 }
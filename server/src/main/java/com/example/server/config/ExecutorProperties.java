@@ -0,0 +1,35 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the context-propagating {@code taskExecutor} used for async tool work.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.executor")
+public class ExecutorProperties {
+
+    /**
+     * {@code PLATFORM} uses a bounded thread pool; {@code VIRTUAL} starts one virtual thread per task
+     * and requires a Java 21 runtime (build the server with {@code -Pjava21}).
+     */
+    private Mode mode = Mode.PLATFORM;
+
+    private int corePoolSize = 5;
+
+    private int maxPoolSize = 10;
+
+    private int queueCapacity = 100;
+
+    /**
+     * Maximum number of concurrently running tasks in {@code VIRTUAL} mode; {@code -1} means unbounded.
+     * Submitters block once the limit is reached.
+     */
+    private int virtualConcurrencyLimit = 1_000;
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request headers captured by the context interceptor and made available to tools.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.headers")
+public class HeaderPropagationProperties {
+
+    /**
+     * Header names to capture, matched case-insensitively. A single {@code *} captures every header.
+     */
+    private List<String> allowlist = new ArrayList<>(List.of(
+            "content-language",
+            "accept-language",
+            "country",
+            "language",
+            "x-request-tracking-id",
+            "x-correlation-id",
+            "x-traffic-type",
+            "x-traffic-color"));
+}
@@ -0,0 +1,145 @@
+package com.example.server.config;
+
+import com.example.server.metrics.HttpClientPoolMetrics;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.http.HttpClient;
+
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "tools.http-client", name = "http2", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager toolConnectionManager(HttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tools.http-client", name = "http2", havingValue = "false", matchIfMissing = true)
+    public HttpClientPoolMetrics httpClientPoolMetrics(PoolingHttpClientConnectionManager toolConnectionManager) {
+        return new HttpClientPoolMetrics(toolConnectionManager);
+    }
+
+    /**
+     * Pooled client behind {@code toolRequestFactory}. Closing it on shutdown stops its idle-connection evictor
+     * thread and closes the pooled connections.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "tools.http-client", name = "http2", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient toolHttpClient(PoolingHttpClientConnectionManager toolConnectionManager,
+                                              HttpClientProperties properties) {
+        TimeValue defaultKeepAlive = TimeValue.of(properties.getKeepAlive());
+        // Honour the upstream's Keep-Alive header, otherwise fall back to our own default instead of 3 minutes
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> response.containsHeader("Keep-Alive")
+                ? DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)
+                : defaultKeepAlive;
+
+        return HttpClients.custom()
+                .setConnectionManager(toolConnectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory toolRequestFactory(HttpClientProperties properties,
+                                                       ObjectProvider<CloseableHttpClient> toolHttpClient) {
+        CloseableHttpClient httpClient = toolHttpClient.getIfAvailable();
+        return httpClient != null
+                ? new HttpComponentsClientHttpRequestFactory(httpClient)
+                : http2RequestFactory(properties);
+    }
+
+    @Bean
+    public RestTemplate toolRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                         ClientHttpRequestFactory toolRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> toolRequestFactory)
+                .build();
+    }
+
+    /**
+     * Connection pool of the ASYNC server's {@code toolWebClient}. Reactor Netty keeps a pool per remote
+     * address, so {@code max-per-route} caps it; statistics are published as
+     * {@code reactor.netty.connection.provider.*}.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public ConnectionProvider toolConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("tools")
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .maxLifeTime(properties.getTimeToLive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Non-blocking counterpart of {@code toolRestTemplate} for {@code AsyncUserService}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public WebClient toolWebClient(WebClient.Builder webClientBuilder, ConnectionProvider toolConnectionProvider,
+                                   HttpClientProperties properties) {
+        reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient
+                .create(toolConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Bodies are buffered whole, as with the RestTemplate; the 256 KB default is too small for user pages
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+    }
+
+    private ClientHttpRequestFactory http2RequestFactory(HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
+    }
+}
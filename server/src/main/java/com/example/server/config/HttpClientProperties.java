@@ -0,0 +1,60 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outbound transport settings for the tool services (upstream calls made by {@code UserService}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.http-client")
+public class HttpClientProperties {
+
+    /**
+     * Maximum number of pooled connections across all routes.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Maximum number of pooled connections per route (scheme + host + port).
+     */
+    private int maxPerRoute = 50;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time to wait for a connection to be leased from the pool.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Keep-alive applied when the upstream does not send a {@code Keep-Alive} header.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections older than this are evicted by the background evictor.
+     */
+    private Duration idleEviction = Duration.ofSeconds(60);
+
+    /**
+     * Pooled connections idle for longer than this are re-validated before being leased.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Maximum lifetime of a pooled connection, regardless of activity.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Use the JDK HTTP client with HTTP/2 instead of the pooled HTTP/1.1 connection manager.
+     * Connections are then multiplexed by the JDK client and pool statistics are not available. Applies to
+     * the SYNC server's blocking client only.
+     */
+    private boolean http2 = false;
+}
@@ -0,0 +1,34 @@
+package com.example.server.config;
+
+import com.example.server.journal.InvocationJournal;
+import com.example.server.metrics.InvocationJournalMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InvocationJournal invocationJournal(JournalProperties properties, @Value("${server.port:8080}") int port) {
+        if (!properties.isEnabled()) {
+            return InvocationJournal.disabled();
+        }
+        // Replicas on one host each get their own directory, so none prunes another's segments
+        Path directory = properties.getDirectory() != null ? properties.getDirectory()
+                : Path.of(System.getProperty("java.io.tmpdir"), "mcp-server-journal", Integer.toString(port));
+        return new InvocationJournal(directory,
+                Math.toIntExact(properties.getSegmentSize().toBytes()),
+                properties.getMaxSegments(),
+                properties.getRingCapacity());
+    }
+
+    @Bean
+    public InvocationJournalMetrics invocationJournalMetrics(InvocationJournal invocationJournal) {
+        return new InvocationJournalMetrics(invocationJournal);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Binary invocation journal written by the tools (decode with {@code JournalReader}).
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.journal")
+public class JournalProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Directory of this instance's segment files. Old segments in it are pruned, so instances must not share
+     * one. Defaults to {@code ${java.io.tmpdir}/mcp-server-journal/<server.port>}.
+     */
+    private Path directory;
+
+    /**
+     * Size of each memory-mapped segment file; a new segment is started when it is full.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Number of segment files kept on disk; older ones are deleted.
+     */
+    private int maxSegments = 8;
+
+    /**
+     * Events buffered between tool threads and the writer, rounded up to a power of two. Events are
+     * dropped (and counted) when the buffer is full.
+     */
+    private int ringCapacity = 8192;
+}
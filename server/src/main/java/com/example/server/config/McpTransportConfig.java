@@ -0,0 +1,77 @@
+package com.example.server.config;
+
+import com.example.server.context.ContextPropagationManager;
+import com.example.server.context.SchedulerContextPropagation;
+import com.example.server.transport.AsyncWebMvcSseServerTransportProvider;
+import com.example.server.transport.SerializedSendTransportProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.transport.WebMvcSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.springframework.ai.mcp.server.autoconfigure.McpServerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * The SYNC server gets the WebMVC SSE transport as Spring AI's auto-configuration sets it up (which backs off
+ * once a transport provider is defined here), handed to the MCP server wrapped in a
+ * {@link SerializedSendTransportProvider}. The ASYNC server gets {@link AsyncWebMvcSseServerTransportProvider}
+ * on the same endpoints.
+ */
+@Configuration
+public class McpTransportConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public WebMvcSseServerTransportProvider webMvcSseServerTransportProvider(
+            ObjectProvider<ObjectMapper> objectMapper, McpServerProperties serverProperties) {
+        return new WebMvcSseServerTransportProvider(objectMapper.getIfAvailable(ObjectMapper::new),
+                serverProperties.getSseMessageEndpoint(), serverProperties.getSseEndpoint());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public RouterFunction<ServerResponse> mvcMcpRouterFunction(
+            WebMvcSseServerTransportProvider webMvcSseServerTransportProvider) {
+        return webMvcSseServerTransportProvider.getRouterFunction();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public McpServerTransportProvider serializedSendTransportProvider(
+            WebMvcSseServerTransportProvider webMvcSseServerTransportProvider) {
+        return new SerializedSendTransportProvider(webMvcSseServerTransportProvider);
+    }
+
+    /**
+     * SYNC tools run on Reactor's {@code boundedElastic} threads; the ASYNC server carries the contexts in the
+     * Reactor context instead.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public SchedulerContextPropagation schedulerContextPropagation(ContextPropagationManager contextPropagationManager) {
+        return new SchedulerContextPropagation(contextPropagationManager);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public AsyncWebMvcSseServerTransportProvider asyncWebMvcSseServerTransportProvider(
+            ObjectProvider<ObjectMapper> objectMapper, McpServerProperties serverProperties,
+            ContextPropagationManager contextPropagationManager) {
+        return new AsyncWebMvcSseServerTransportProvider(objectMapper.getIfAvailable(ObjectMapper::new),
+                serverProperties.getSseMessageEndpoint(), serverProperties.getSseEndpoint(),
+                contextPropagationManager::captureInto);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public RouterFunction<ServerResponse> asyncMvcMcpRouterFunction(
+            AsyncWebMvcSseServerTransportProvider asyncWebMvcSseServerTransportProvider) {
+        return asyncWebMvcSseServerTransportProvider.getRouterFunction();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.server.config;
+
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.metrics.UserMirrorMetrics;
+import com.example.server.mirror.UserMirror;
+import com.example.server.upstream.UpstreamEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(MirrorProperties.class)
+public class MirrorConfig implements SchedulingConfigurer {
+
+    private final MirrorProperties properties;
+    private final ObjectProvider<UserMirror> userMirror;
+
+    public MirrorConfig(MirrorProperties properties, ObjectProvider<UserMirror> userMirror) {
+        this.properties = properties;
+        this.userMirror = userMirror;
+    }
+
+    @Bean(initMethod = "start")
+    public UserMirror userMirror(RestTemplate toolRestTemplate,
+                                 CompactUserCodec compactUserCodec,
+                                 ObjectMapper objectMapper,
+                                 UpstreamEndpoint upstreamEndpoint) {
+        if (!properties.isEnabled()) {
+            return UserMirror.disabled();
+        }
+        MirrorProperties.Snapshot snapshot = properties.getSnapshot();
+        return new UserMirror(toolRestTemplate, upstreamEndpoint.baseUrl(), compactUserCodec, objectMapper,
+                properties.getPageSize(), properties.getMaxStaleness(),
+                snapshot.isEnabled() ? snapshot.getPath() : null, snapshot.getMaxAge());
+    }
+
+    @Bean
+    public UserMirrorMetrics userMirrorMetrics(UserMirror userMirror) {
+        return new UserMirrorMetrics(userMirror);
+    }
+
+    // The first load runs on the scheduler thread right after startup, so it never delays readiness
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (properties.isEnabled()) {
+            UserMirror mirror = userMirror.getObject();
+            registrar.addFixedDelayTask(new FixedDelayTask(mirror::refresh, properties.getRefreshInterval(),
+                    Duration.ZERO));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Local mirror of the upstream user dataset that answers {@code UserService.searchUsers}.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.mirror")
+public class MirrorProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Delay between the end of one full reload and the start of the next; the first load starts at startup.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * Users requested per upstream page while loading.
+     */
+    private int pageSize = 100;
+
+    /**
+     * Age after which the mirror stops answering and searches go upstream until a refresh succeeds.
+     */
+    private Duration maxStaleness = Duration.ofMinutes(30);
+
+    private final Snapshot snapshot = new Snapshot();
+
+    /**
+     * Binary snapshot written after every refresh and memory-mapped on startup, so a restarted server
+     * answers from it until its first refresh completes.
+     */
+    @Data
+    public static class Snapshot {
+
+        private boolean enabled = true;
+
+        private Path path = Path.of(System.getProperty("java.io.tmpdir"), "mcp-server-mirror", "users.snapshot");
+
+        /**
+         * Oldest snapshot still mapped on startup; older ones are ignored and the mirror starts cold. A mapped
+         * snapshot is only searched while it is within {@code max-staleness}.
+         */
+        private Duration maxAge = Duration.ofDays(1);
+    }
+}
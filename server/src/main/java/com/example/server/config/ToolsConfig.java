@@ -1,23 +1,55 @@
 package com.example.server.config;
 
+import com.example.server.context.HeaderPropagationPolicy;
+import com.example.server.metrics.ToolMetrics;
+import com.example.server.service.AsyncUserService;
 import com.example.server.service.UserService;
+import com.example.server.tools.AsyncToolSpecifications;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@EnableConfigurationProperties(HeaderPropagationProperties.class)
 public class ToolsConfig {
 
     @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
     public ToolCallbackProvider tools(UserService userService) {
         return MethodToolCallbackProvider.builder()
                 .toolObjects(userService)
                 .build();
     }
 
+    /**
+     * The ASYNC server's tools, handed to the MCP server as they are; a {@link ToolCallbackProvider} would
+     * have them wrapped to run on a blocking scheduler.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public List<McpServerFeatures.AsyncToolSpecification> asyncUserTools(AsyncUserService asyncUserService) {
+        return AsyncToolSpecifications.from(asyncUserService);
+    }
+
+    @Bean
+    public ToolMetrics toolMetrics(MeterRegistry meterRegistry) {
+        return new ToolMetrics(meterRegistry);
+    }
+
+    @Bean
+    public HeaderPropagationPolicy headerPropagationPolicy(HeaderPropagationProperties properties) {
+        return new HeaderPropagationPolicy(properties.getAllowlist());
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
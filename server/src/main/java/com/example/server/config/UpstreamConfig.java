@@ -0,0 +1,36 @@
+package com.example.server.config;
+
+import com.example.server.upstream.FakeUpstream;
+import com.example.server.upstream.FakeUsers;
+import com.example.server.upstream.LatencyModel;
+import com.example.server.upstream.UpstreamEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "tools.upstream.fake", name = "enabled", havingValue = "true")
+    public FakeUpstream fakeUpstream(UpstreamProperties properties, ObjectMapper objectMapper) {
+        UpstreamProperties.Fake fake = properties.getFake();
+        Map<FakeUpstream.Route, LatencyModel> routeLatency = new EnumMap<>(FakeUpstream.Route.class);
+        fake.getRouteLatency().forEach((route, latency) -> routeLatency.put(route, latency.toModel()));
+        return new FakeUpstream(objectMapper, FakeUsers.users(fake.getUsers(), fake.getSeed()), fake.getPort(),
+                fake.getLatency().toModel(), routeLatency, fake.getErrorRate(), fake.getErrorStatus());
+    }
+
+    @Bean
+    public UpstreamEndpoint upstreamEndpoint(UpstreamProperties properties, ObjectProvider<FakeUpstream> fakeUpstream) {
+        FakeUpstream fake = fakeUpstream.getIfAvailable();
+        return new UpstreamEndpoint(fake != null ? fake.baseUrl() : properties.getBaseUrl());
+    }
+}
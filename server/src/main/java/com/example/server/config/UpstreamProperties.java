@@ -0,0 +1,96 @@
+package com.example.server.config;
+
+import com.example.server.upstream.FakeUpstream;
+import com.example.server.upstream.LatencyModel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The dummyjson-compatible API behind the user tools.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.upstream")
+public class UpstreamProperties {
+
+    /**
+     * Base URL of the upstream API; ignored while the embedded fake upstream is enabled.
+     */
+    private String baseUrl = "https://dummyjson.com";
+
+    private final Fake fake = new Fake();
+
+    /**
+     * In-process stand-in for dummyjson, so performance and integration runs work offline and reproducibly.
+     */
+    @Data
+    public static class Fake {
+
+        private boolean enabled = false;
+
+        /**
+         * Loopback port to listen on; {@code 0} picks a free one.
+         */
+        private int port = 0;
+
+        /**
+         * Number of generated users.
+         */
+        private int users = 208;
+
+        /**
+         * Seed of the generated dataset; the same seed always yields the same users.
+         */
+        private long seed = 42;
+
+        private Latency latency = new Latency();
+
+        /**
+         * Per-route latency overriding {@link #latency}, keyed by route (list, get, search, add, update, delete).
+         */
+        private Map<FakeUpstream.Route, Latency> routeLatency = new EnumMap<>(FakeUpstream.Route.class);
+
+        /**
+         * Fraction of requests, between 0 and 1, answered with {@link #errorStatus} after their latency.
+         */
+        private double errorRate = 0;
+
+        private int errorStatus = 503;
+    }
+
+    /**
+     * Simulated response time of the fake upstream.
+     */
+    @Data
+    public static class Latency {
+
+        private LatencyModel.Distribution distribution = LatencyModel.Distribution.NONE;
+
+        /**
+         * Lower bound of every sample, and of the UNIFORM range.
+         */
+        private Duration min = Duration.ZERO;
+
+        /**
+         * FIXED value, EXPONENTIAL mean and LOG_NORMAL median.
+         */
+        private Duration mean = Duration.ofMillis(20);
+
+        /**
+         * Upper bound of every sample, and of the UNIFORM range.
+         */
+        private Duration max = Duration.ofSeconds(1);
+
+        /**
+         * LOG_NORMAL shape; larger values give a longer tail.
+         */
+        private double sigma = 0.5;
+
+        public LatencyModel toModel() {
+            return new LatencyModel(distribution, min, mean, max, sigma);
+        }
+    }
+}
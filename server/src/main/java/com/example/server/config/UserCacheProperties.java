@@ -0,0 +1,26 @@
+package com.example.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache in front of {@code UserService.getUserById}.
+ */
+@Data
+@ConfigurationProperties(prefix = "tools.user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on cached users; least recently used entries are evicted beyond it.
+     */
+    private int maxEntries = 1_000;
+
+    /**
+     * How long a cached user is served before it is fetched again; zero disables expiry.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -2,11 +2,13 @@ package com.example.server.config;
 
 import com.example.server.interceptor.UnifiedContextInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@EnableConfigurationProperties(ContextRestorationProperties.class)
 public class WebConfig implements WebMvcConfigurer {
 
     @Autowired
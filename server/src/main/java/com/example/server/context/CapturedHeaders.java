@@ -0,0 +1,162 @@
+package com.example.server.context;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable, array-backed view of the headers captured for a request. Names are stored lower-cased and
+ * looked up case-insensitively; with a handful of allowlisted headers a linear scan beats hashing.
+ * <p>
+ * One instance is shared by the header accessor, {@link DetachedRequestAttributes} and the tools, and the
+ * read-only {@link HttpHeaders} view is built at most once.
+ */
+public final class CapturedHeaders extends AbstractMap<String, String> {
+
+    private static final CapturedHeaders EMPTY = new CapturedHeaders(new String[0], new String[0], 0);
+
+    private final String[] names;
+    private final String[] values;
+    private final int size;
+    private volatile HttpHeaders httpHeaders;
+    private Set<Entry<String, String>> entrySet;
+
+    private CapturedHeaders(String[] names, String[] values, int size) {
+        this.names = names;
+        this.values = values;
+        this.size = size;
+    }
+
+    public static CapturedHeaders empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return {@code headers} itself when already captured, otherwise an immutable copy with lower-cased names
+     */
+    public static CapturedHeaders of(Map<String, String> headers) {
+        if (headers instanceof CapturedHeaders captured) {
+            return captured;
+        }
+        if (headers == null || headers.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(headers.size());
+        headers.forEach((name, value) -> builder.add(name.toLowerCase(Locale.ROOT), value));
+        return builder.build();
+    }
+
+    @Override
+    public String get(Object key) {
+        if (key instanceof String name) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equalsIgnoreCase(name)) {
+                    return values[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the captured headers as read-only {@link HttpHeaders}, built on first use
+     */
+    public HttpHeaders toHttpHeaders() {
+        HttpHeaders result = httpHeaders;
+        if (result == null) {
+            HttpHeaders headers = new HttpHeaders();
+            for (int i = 0; i < size; i++) {
+                headers.add(names[i], values[i]);
+            }
+            result = HttpHeaders.readOnlyHttpHeaders(headers);
+            httpHeaders = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Set<Entry<String, String>> result = entrySet;
+        if (result == null) {
+            result = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = next++;
+                            return new SimpleImmutableEntry<>(names[i], values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+            entrySet = result;
+        }
+        return result;
+    }
+
+    /**
+     * Collects headers whose names are already lower-cased; later values for the same name are ignored.
+     */
+    static final class Builder {
+
+        private final String[] names;
+        private final String[] values;
+        private int size;
+
+        Builder(int capacity) {
+            this.names = new String[capacity];
+            this.values = new String[capacity];
+        }
+
+        Builder add(String lowerCaseName, String value) {
+            if (value == null || size == names.length) {
+                return this;
+            }
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(lowerCaseName)) {
+                    return this;
+                }
+            }
+            names[size] = lowerCaseName;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        CapturedHeaders build() {
+            return size == 0 ? EMPTY : new CapturedHeaders(names, values, size);
+        }
+    }
+}
@@ -1,63 +1,95 @@
 package com.example.server.context;
 
 import com.example.server.accessors.ThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 @Component
+@Slf4j
 public class ContextPropagationManager {
 
-    private final List<ThreadLocalAccessor<?>> accessors;
+    private static final String SNAPSHOT_KEY = ContextSnapshot.class.getName();
+
+    // Fixed at construction; a snapshot's slot i always belongs to accessors[i]
+    private final ThreadLocalAccessor<?>[] accessors;
 
     public ContextPropagationManager(List<ThreadLocalAccessor<?>> accessors) {
-        this.accessors = accessors;
+        this.accessors = accessors.toArray(new ThreadLocalAccessor<?>[0]);
     }
 
-    public Map<String, Object> captureContext() {
-        Map<String, Object> context = new HashMap<>();
-        for (ThreadLocalAccessor<?> accessor : accessors) {
+    public ContextSnapshot captureContext() {
+        ThreadLocalAccessor<?>[] accessors = this.accessors;
+        Object[] values = new Object[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
             try {
-                Object value = accessor.getValue();
-                // ADD DEBUG POINT HERE - Check what getValue() returns for each accessor
-                System.out.println("Capturing " + accessor.getKey() + ": " + value);
-                if (value != null) {
-                    context.put(accessor.getKey(), value);
-                }
+                values[i] = accessors[i].getValue();
             } catch (Exception e) {
-                System.err.println("Failed to capture context for " + accessor.getKey() + ": " + e.getMessage());
+                log.warn("Failed to capture context for {}: {}", accessors[i].getKey(), e.getMessage());
             }
         }
-        return context;
+        return new ContextSnapshot(values);
     }
 
-
     @SuppressWarnings("unchecked")
-    public void restoreContext(Map<String, Object> context) {
-        if (context == null) return;
+    public void restoreContext(ContextSnapshot snapshot) {
+        if (snapshot == null) return;
+        if (snapshot.size() != accessors.length) {
+            throw new IllegalArgumentException("Snapshot was not captured by this ContextPropagationManager");
+        }
 
-        for (ThreadLocalAccessor accessor : accessors) {
+        ThreadLocalAccessor<?>[] accessors = this.accessors;
+        for (int i = 0; i < accessors.length; i++) {
+            Object value = snapshot.get(i);
+            if (value == null) {
+                continue;
+            }
             try {
-                Object value = context.get(accessor.getKey());
-                if (value != null) {
-                    accessor.setValue(value);
-                }
+                ((ThreadLocalAccessor<Object>) accessors[i]).setValue(value);
             } catch (Exception e) {
                 // Log warning but continue with other accessors
-                System.err.println("Failed to restore context for " + accessor.getKey() + ": " + e.getMessage());
+                log.warn("Failed to restore context for {}: {}", accessors[i].getKey(), e.getMessage());
             }
         }
     }
 
+    /**
+     * Adds a snapshot of the current thread's contexts to a Reactor {@link Context}, for a pipeline that
+     * continues on other threads.
+     */
+    public Context captureInto(Context context) {
+        return context.put(SNAPSHOT_KEY, captureContext());
+    }
+
+    /**
+     * Runs {@code call} with the contexts a Reactor pipeline carries (see {@link #captureInto}) installed on
+     * the current thread and clears them afterwards, as the task decorator does for executor tasks. Without a
+     * snapshot in the pipeline the call runs as is.
+     */
+    public <T> T callWithContext(ContextView context, Supplier<T> call) {
+        ContextSnapshot snapshot = context.getOrDefault(SNAPSHOT_KEY, null);
+        if (snapshot == null) {
+            return call.get();
+        }
+        try {
+            restoreContext(snapshot);
+            return call.get();
+        } finally {
+            clearContext();
+        }
+    }
+
     public void clearContext() {
         for (ThreadLocalAccessor<?> accessor : accessors) {
             try {
                 accessor.clear();
             } catch (Exception e) {
                 // Log warning but continue with other accessors
-                System.err.println("Failed to clear context for " + accessor.getKey() + ": " + e.getMessage());
+                log.warn("Failed to clear context for {}: {}", accessor.getKey(), e.getMessage());
             }
         }
     }
@@ -0,0 +1,24 @@
+package com.example.server.context;
+
+/**
+ * Immutable set of values captured by {@link ContextPropagationManager#captureContext()}.
+ * <p>
+ * Values are indexed by the position of their accessor in the manager, which is fixed when the bean is
+ * built, so capture and restore are plain array walks without hashing or key lookups.
+ */
+public final class ContextSnapshot {
+
+    private final Object[] values;
+
+    ContextSnapshot(Object[] values) {
+        this.values = values;
+    }
+
+    Object get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return values.length;
+    }
+}
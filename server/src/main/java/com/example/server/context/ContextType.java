@@ -0,0 +1,15 @@
+package com.example.server.context;
+
+/**
+ * Thread-bound contexts that {@link com.example.server.service.ContextRestorationService} can install
+ * on a tool thread.
+ */
+public enum ContextType {
+    CUSTOM_CONTEXT,
+
+    MDC,
+
+    REQUEST_ATTRIBUTES,
+
+    LOCALE
+}
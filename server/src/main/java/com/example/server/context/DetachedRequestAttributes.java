@@ -2,6 +2,7 @@ package com.example.server.context;
 
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -9,39 +10,78 @@ import java.util.Map;
 
 /**
  * Creating Mock RequestAttributes, so that it can be accessed in a Async Thread.
+ * <p>
+ * Request attributes are copied from the original request on the first read or write, so requests whose
+ * tools never touch attributes never copy them. The original attributes do not outlive the request
+ * (they are cleared once it completes and the container recycles the request), so {@link #detach()} takes
+ * the copy at the latest when the request completes. The copy is an immutable snapshot and the first write
+ * copies it again (copy-on-write). The request stub only references the captured headers and the response
+ * stub is shared.
  */
 public class DetachedRequestAttributes extends ServletRequestAttributes {
-    private final Map<String, Object> attributeMap = new HashMap<>();
+
+    private static final MinimalHttpServletResponse RESPONSE = new MinimalHttpServletResponse();
+
+    private volatile ServletRequestAttributes original;
+    private volatile Attributes attributes;
     private final String sessionId;
 
     public DetachedRequestAttributes(ServletRequestAttributes original, Map<String, String> headers) {
-        super(new MinimalHttpServletRequest(headers), new MinimalHttpServletResponse());
+        super(new MinimalHttpServletRequest(headers), RESPONSE);
         this.sessionId = original.getSessionId();
+        this.original = original;
+    }
 
-        // Copy request attributes (if you use them)
-        for (String name : original.getAttributeNames(SCOPE_REQUEST)) {
-            attributeMap.put(name, original.getAttribute(name, SCOPE_REQUEST));
-        }
+    /**
+     * Copies the original request attributes if nothing has read them yet and releases the original request.
+     * Must be called before the original request completes.
+     */
+    public void detach() {
+        attributes();
     }
 
     @Override
     public Object getAttribute(String name, int scope) {
-        return scope == SCOPE_REQUEST ? attributeMap.get(name.toLowerCase()) : null;
+        return scope == SCOPE_REQUEST ? attributes().get(name) : null;
     }
 
     @Override
     public void setAttribute(String name, Object value, int scope) {
-        if (scope == SCOPE_REQUEST) attributeMap.put(name.toLowerCase(), value);
+        if (scope == SCOPE_REQUEST) {
+            synchronized (this) {
+                Attributes current = attributes();
+                attributes = value != null ? current.with(name, value) : current.without(name);
+            }
+        }
     }
 
     @Override
     public void removeAttribute(String name, int scope) {
-        if (scope == SCOPE_REQUEST) attributeMap.remove(name.toLowerCase());
+        if (scope == SCOPE_REQUEST) {
+            synchronized (this) {
+                attributes = attributes().without(name);
+            }
+        }
     }
 
     @Override
     public String[] getAttributeNames(int scope) {
-        return scope == SCOPE_REQUEST ? attributeMap.keySet().toArray(new String[0]) : new String[0];
+        return scope == SCOPE_REQUEST ? attributes().names() : new String[0];
+    }
+
+    private Attributes attributes() {
+        Attributes current = attributes;
+        if (current == null) {
+            synchronized (this) {
+                current = attributes;
+                if (current == null) {
+                    current = Attributes.snapshot(original);
+                    attributes = current;
+                    original = null;
+                }
+            }
+        }
+        return current;
     }
 
     @Override
@@ -49,17 +89,103 @@ public class DetachedRequestAttributes extends ServletRequestAttributes {
         return sessionId;
     }
 
+    /**
+     * Immutable attribute set; names match case-insensitively.
+     */
+    private static final class Attributes {
+
+        private static final Attributes EMPTY = new Attributes(new String[0], new Object[0]);
+
+        private final String[] names;
+        private final Object[] values;
+
+        private Attributes(String[] names, Object[] values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        static Attributes snapshot(ServletRequestAttributes original) {
+            String[] names;
+            try {
+                names = original.getAttributeNames(SCOPE_REQUEST);
+            } catch (IllegalStateException e) {
+                // Read after the request completed without detach(): its attributes are gone
+                return EMPTY;
+            }
+            if (names.length == 0) {
+                return EMPTY;
+            }
+            Object[] values = new Object[names.length];
+            int size = 0;
+            for (String name : names) {
+                Object value = original.getAttribute(name, SCOPE_REQUEST);
+                if (value != null) {
+                    names[size] = name;
+                    values[size++] = value;
+                }
+            }
+            return size == names.length ? new Attributes(names, values)
+                    : new Attributes(Arrays.copyOf(names, size), Arrays.copyOf(values, size));
+        }
+
+        Object get(String name) {
+            int index = indexOf(name);
+            return index < 0 ? null : values[index];
+        }
+
+        String[] names() {
+            return names.clone();
+        }
+
+        Attributes with(String name, Object value) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                Object[] copy = values.clone();
+                copy[index] = value;
+                return new Attributes(names, copy);
+            }
+            String[] newNames = Arrays.copyOf(names, names.length + 1);
+            Object[] newValues = Arrays.copyOf(values, values.length + 1);
+            newNames[names.length] = name;
+            newValues[values.length] = value;
+            return new Attributes(newNames, newValues);
+        }
+
+        Attributes without(String name) {
+            int index = indexOf(name);
+            if (index < 0) {
+                return this;
+            }
+            String[] newNames = new String[names.length - 1];
+            Object[] newValues = new Object[values.length - 1];
+            System.arraycopy(names, 0, newNames, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(names, index + 1, newNames, index, names.length - index - 1);
+            System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+            return new Attributes(newNames, newValues);
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
     // --- Minimal Dummy Request Implementation ---
     private static class MinimalHttpServletRequest implements jakarta.servlet.http.HttpServletRequest {
-        private final Map<String, String> headers;
+        private final CapturedHeaders headers;
 
         MinimalHttpServletRequest(Map<String, String> headers) {
-            this.headers = headers != null ? new HashMap<>(headers) : new HashMap<>();
+            this.headers = CapturedHeaders.of(headers);
         }
 
         @Override
         public String getHeader(String name) {
-            return headers.get(name.toLowerCase());
+            return headers.get(name);
         }
 
         @Override
@@ -69,7 +195,7 @@ public class DetachedRequestAttributes extends ServletRequestAttributes {
 
         @Override
         public Enumeration<String> getHeaders(String name) {
-            String value = headers.get(name.toLowerCase());
+            String value = headers.get(name);
             return value != null ? Collections.enumeration(Collections.singletonList(value)) : Collections.emptyEnumeration();
         }
 
@@ -0,0 +1,64 @@
+package com.example.server.context;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides which request headers are captured for tools. Allowlisted names are lower-cased once at startup
+ * and each is fetched with a single {@link HttpServletRequest#getHeader} call, so a request never has its
+ * full header set enumerated.
+ */
+public class HeaderPropagationPolicy {
+
+    private static final String ALL = "*";
+
+    private final String[] allowlist;
+    private final boolean captureAll;
+
+    public HeaderPropagationPolicy(Collection<String> allowlist) {
+        Set<String> names = new LinkedHashSet<>();
+        boolean all = false;
+        for (String name : allowlist) {
+            String trimmed = name.trim();
+            if (ALL.equals(trimmed)) {
+                all = true;
+            } else if (!trimmed.isEmpty()) {
+                names.add(trimmed.toLowerCase(Locale.ROOT));
+            }
+        }
+        this.allowlist = names.toArray(new String[0]);
+        this.captureAll = all;
+    }
+
+    public CapturedHeaders capture(HttpServletRequest request) {
+        if (captureAll) {
+            return captureAll(request);
+        }
+        CapturedHeaders.Builder builder = new CapturedHeaders.Builder(allowlist.length);
+        for (String name : allowlist) {
+            builder.add(name, request.getHeader(name));
+        }
+        return builder.build();
+    }
+
+    private static CapturedHeaders captureAll(HttpServletRequest request) {
+        Enumeration<String> headerNames = request.getHeaderNames();
+        if (headerNames == null) {
+            return CapturedHeaders.empty();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        while (headerNames.hasMoreElements()) {
+            names.add(headerNames.nextElement().toLowerCase(Locale.ROOT));
+        }
+        CapturedHeaders.Builder builder = new CapturedHeaders.Builder(names.size());
+        for (String name : names) {
+            builder.add(name, request.getHeader(name));
+        }
+        return builder.build();
+    }
+}
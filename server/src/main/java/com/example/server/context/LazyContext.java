@@ -0,0 +1,77 @@
+package com.example.server.context;
+
+import com.example.server.model.CustomContextParam;
+import com.example.server.service.ContextRestorationService;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Handle returned to a tool by {@link ContextRestorationService#restoreFor(java.util.Set)}.
+ * <p>
+ * Each context is installed on the current thread the first time it is read through this handle, and
+ * the outbound {@link HttpHeaders} are only built when asked for. A handle belongs to a single tool
+ * invocation and is not thread-safe.
+ */
+public class LazyContext {
+
+    private final ContextRestorationService contextRestorationService;
+    private int restored;
+    private HttpHeaders headers;
+
+    public LazyContext(ContextRestorationService contextRestorationService) {
+        this.contextRestorationService = contextRestorationService;
+    }
+
+    /**
+     * Installs the given context on the current thread unless it already was.
+     */
+    public LazyContext require(ContextType type) {
+        int bit = 1 << type.ordinal();
+        if ((restored & bit) == 0) {
+            restored |= bit;
+            contextRestorationService.restore(type);
+        }
+        return this;
+    }
+
+    public HttpHeaders headers() {
+        if (headers == null) {
+            headers = contextRestorationService.getHttpHeaders();
+        }
+        return headers;
+    }
+
+    /**
+     * String values of {@link CustomContext} live in the MDC, so both are installed.
+     */
+    public String customValue(CustomContextParam param) {
+        require(ContextType.CUSTOM_CONTEXT);
+        require(ContextType.MDC);
+        return CustomContext.get(param);
+    }
+
+    public <T> T customObject(CustomContextParam param) {
+        require(ContextType.CUSTOM_CONTEXT);
+        return CustomContext.getObject(param);
+    }
+
+    public Locale locale() {
+        require(ContextType.LOCALE);
+        return LocaleContextHolder.getLocale();
+    }
+
+    public TimeZone timeZone() {
+        require(ContextType.LOCALE);
+        return LocaleContextHolder.getTimeZone();
+    }
+
+    public RequestAttributes requestAttributes() {
+        require(ContextType.REQUEST_ATTRIBUTES);
+        return RequestContextHolder.getRequestAttributes();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.server.context;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which contexts a {@code @Tool} method needs installed before it runs.
+ * <p>
+ * In lazy restoration mode only the declared contexts are restored up front; anything else is restored
+ * the first time the tool reads it through {@link LazyContext}. Tools without the annotation get nothing
+ * restored up front.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresContext {
+
+    ContextType[] value();
+}
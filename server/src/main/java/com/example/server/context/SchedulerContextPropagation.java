@@ -0,0 +1,35 @@
+package com.example.server.context;
+
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Carries the request's contexts onto Reactor scheduler threads, as the task decorator does for executor tasks.
+ * <p>
+ * The SYNC MCP server runs each tool on {@code boundedElastic}, scheduled from the request thread that
+ * blocks on the message. A schedule hook captures the contexts on the scheduling thread, installs them
+ * around the task and clears them afterwards, so a tool sees its own request and not whatever a reused
+ * worker thread inherited when it was created.
+ */
+public class SchedulerContextPropagation implements AutoCloseable {
+
+    private static final String HOOK_KEY = SchedulerContextPropagation.class.getName();
+
+    public SchedulerContextPropagation(ContextPropagationManager contextManager) {
+        Schedulers.onScheduleHook(HOOK_KEY, runnable -> {
+            ContextSnapshot capturedContext = contextManager.captureContext();
+            return () -> {
+                try {
+                    contextManager.restoreContext(capturedContext);
+                    runnable.run();
+                } finally {
+                    contextManager.clearContext();
+                }
+            };
+        });
+    }
+
+    @Override
+    public void close() {
+        Schedulers.resetOnScheduleHook(HOOK_KEY);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.server.context;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link RequiresContext} declarations of a tool class, resolved once by tool name.
+ */
+public final class ToolContextRequirements {
+
+    private final Map<String, Set<ContextType>> requirements;
+
+    private ToolContextRequirements(Map<String, Set<ContextType>> requirements) {
+        this.requirements = requirements;
+    }
+
+    public static ToolContextRequirements of(Class<?> toolClass) {
+        Map<String, Set<ContextType>> requirements = new HashMap<>();
+        ReflectionUtils.doWithMethods(toolClass, method -> {
+            Tool tool = method.getAnnotation(Tool.class);
+            RequiresContext requiresContext = method.getAnnotation(RequiresContext.class);
+            String name = StringUtils.hasText(tool.name()) ? tool.name() : method.getName();
+            Set<ContextType> types = requiresContext == null || requiresContext.value().length == 0
+                    ? EnumSet.noneOf(ContextType.class)
+                    : EnumSet.copyOf(Arrays.asList(requiresContext.value()));
+            requirements.put(name, Collections.unmodifiableSet(types));
+        }, method -> method.isAnnotationPresent(Tool.class));
+        return new ToolContextRequirements(Map.copyOf(requirements));
+    }
+
+    public Set<ContextType> forTool(String toolName) {
+        Set<ContextType> types = requirements.get(toolName);
+        if (types == null) {
+            throw new IllegalArgumentException("Unknown tool: " + toolName);
+        }
+        return types;
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.server.interceptor;
 
 import com.example.server.accessors.accessorsImpl.*;
+import com.example.server.context.CapturedHeaders;
 import com.example.server.context.CustomContext;
 import com.example.server.context.DetachedRequestAttributes;
+import com.example.server.context.HeaderPropagationPolicy;
 import com.example.server.model.ContextParamDefault;
 import com.example.server.model.CustomContextParam;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContext;
@@ -14,15 +17,13 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Component
-public class UnifiedContextInterceptor implements HandlerInterceptor {
+@Slf4j
+public class UnifiedContextInterceptor implements AsyncHandlerInterceptor {
 
     @Autowired
     private HeaderContextAccessor headerContextAccessor;
@@ -39,12 +40,13 @@ public class UnifiedContextInterceptor implements HandlerInterceptor {
     @Autowired
     private LocaleContextAccessor localeContextAccessor;
 
+    @Autowired
+    private HeaderPropagationPolicy headerPropagationPolicy;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        // Capture headers
-        Map<String, String> headers = Collections.list(request.getHeaderNames())
-                .stream()
-                .collect(Collectors.toMap(h -> h, request::getHeader));
+        // Capture allowlisted headers once; the same instance is shared with the detached request and tools
+        CapturedHeaders headers = headerPropagationPolicy.capture(request);
 
         headerContextAccessor.setValue(headers);
 
@@ -53,26 +55,18 @@ public class UnifiedContextInterceptor implements HandlerInterceptor {
         if (requestAttributes instanceof ServletRequestAttributes) {
             DetachedRequestAttributes detached = new DetachedRequestAttributes((ServletRequestAttributes) requestAttributes, headers);
             requestAttributesAccessor.setValue(detached);
-            System.out.println("Captured DetachedRequestAttributes in interceptor");
         } else if (requestAttributes != null) {
             requestAttributesAccessor.setValue(requestAttributes);
-            System.out.println("Captured original RequestAttributes in interceptor: " + requestAttributes.getClass().getSimpleName());
         } else {
-            System.out.println("No RequestAttributes available in interceptor");
+            log.debug("No RequestAttributes available in interceptor");
         }
 
         // Explicitly capture and store LocaleContext
         LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
         if (localeContext != null) {
             localeContextAccessor.setValue(localeContext);
-            System.out.println("Captured LocaleContext in interceptor: " + localeContext.getLocale());
         } else {
-            System.out.println("No LocaleContext available in interceptor");
-        }
-
-        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
-        if (mdcContext != null) {
-            mdcAccessor.setValue(mdcContext);
+            log.debug("No LocaleContext available in interceptor");
         }
 
         // Explicitly capture and store custom contexts thread local
@@ -83,12 +77,37 @@ public class UnifiedContextInterceptor implements HandlerInterceptor {
             customContextAccessor.setValue(CustomContext.getCopyOfContextHolderMap());
         }
 
+        // After CustomContext.init(), so the captured MDC carries the request and correlation ids
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        if (mdcContext != null) {
+            mdcAccessor.setValue(mdcContext);
+        }
+
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        detachRequestAttributes();
+        headerContextAccessor.clear();
+        mdcAccessor.clear();
+        // The next request on this thread initializes its own CustomContext and ids
+        customContextAccessor.clear();
+    }
+
+    // Async (ASYNC server) responses complete on another thread; afterCompletion only runs on that dispatch
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        detachRequestAttributes();
         headerContextAccessor.clear();
         mdcAccessor.clear();
+        customContextAccessor.clear();
+    }
+
+    // The detached copy reads the original attributes lazily; copy them while the request is still active
+    private void detachRequestAttributes() {
+        if (requestAttributesAccessor.getValue() instanceof DetachedRequestAttributes detached) {
+            detached.detach();
+        }
     }
 }
@@ -0,0 +1,297 @@
+package com.example.server.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Binary journal of tool invocations.
+ * <p>
+ * Tool threads publish fixed-size events into a pre-allocated multi-producer ring buffer: a slot is
+ * claimed with a CAS on the tail sequence and published by storing its sequence number, so recording
+ * never takes a lock or allocates. A single writer thread drains the ring into memory-mapped segment
+ * files (see {@link JournalFormat}) and rolls to a new segment when the current one is full, keeping
+ * at most {@code maxSegments} files. When the ring is full, events are dropped and counted rather than
+ * blocking the tool.
+ * <p>
+ * An idle writer parks until a producer publishes into the empty ring and unparks it, so an idle server
+ * pays nothing for the journal; producers only pay for the unpark when the writer is asleep.
+ */
+@Slf4j
+public class InvocationJournal implements AutoCloseable {
+
+    // Polls of an empty ring before the writer parks, so a burst does not unpark it for every event
+    private static final int IDLE_SPINS = 100;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int mask;
+
+    // Ring slots, indexed by sequence & mask
+    private final String[] tools;
+    private final long[] timestamps;
+    private final int[] argsHashes;
+    private final long[] requestIdHi;
+    private final long[] requestIdLo;
+    private final long[] correlationIdHi;
+    private final long[] correlationIdLo;
+    private final long[] latencies;
+    private final byte[] outcomes;
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private volatile Thread writer;
+
+    // Owned by the writer thread
+    private MappedByteBuffer segment;
+    private final Map<String, Short> segmentTools = new HashMap<>();
+    private int segmentCounter;
+
+    public InvocationJournal(Path directory, int segmentSize, int maxSegments, int ringCapacity) {
+        this(true, directory, segmentSize, maxSegments, ringCapacity);
+    }
+
+    private InvocationJournal(boolean enabled, Path directory, int segmentSize, int maxSegments, int ringCapacity) {
+        if (segmentSize < JournalFormat.HEADER_SIZE + JournalFormat.MAX_TOOL_SIZE + JournalFormat.INVOCATION_SIZE + 1) {
+            throw new IllegalArgumentException("Journal segment size too small: " + segmentSize);
+        }
+        this.enabled = enabled;
+        this.capacity = Integer.highestOneBit(Math.max(2, ringCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.tools = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.argsHashes = new int[capacity];
+        this.requestIdHi = new long[capacity];
+        this.requestIdLo = new long[capacity];
+        this.correlationIdHi = new long[capacity];
+        this.correlationIdLo = new long[capacity];
+        this.latencies = new long[capacity];
+        this.outcomes = new byte[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(1, maxSegments);
+    }
+
+    /**
+     * A journal that accepts and discards every event.
+     */
+    public static InvocationJournal disabled() {
+        return new InvocationJournal(false, null, 4096, 1, 2);
+    }
+
+    public synchronized void start() throws IOException {
+        if (!enabled || running) {
+            return;
+        }
+        Files.createDirectories(directory);
+        roll();
+        running = true;
+        writer = new Thread(this::drain, "invocation-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records a completed tool invocation.
+     *
+     * @param requestId     request id captured with the request's contexts; {@code null} or non-UUID values
+     *                      are recorded as zero
+     * @param correlationId correlation id captured with the request's contexts, as {@code requestId}
+     */
+    public void record(String tool, int argsHash, String requestId, String correlationId, long latencyNanos,
+                       InvocationOutcome outcome) {
+        if (!running) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        tools[slot] = tool;
+        timestamps[slot] = System.currentTimeMillis();
+        argsHashes[slot] = argsHash;
+        requestIdHi[slot] = JournalFormat.uuidBits(requestId, true);
+        requestIdLo[slot] = JournalFormat.uuidBits(requestId, false);
+        correlationIdHi[slot] = JournalFormat.uuidBits(correlationId, true);
+        correlationIdLo[slot] = JournalFormat.uuidBits(correlationId, false);
+        latencies[slot] = latencyNanos;
+        outcomes[slot] = (byte) outcome.ordinal();
+        // Volatile store: the writer sees every field above once it sees the sequence, and the store is
+        // ordered before the read of writerParked (the writer sets that flag before checking the ring again)
+        published.set(slot, sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public int pendingCount() {
+        return (int) (tail.get() - head);
+    }
+
+    @Override
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = writer;
+            writer = null;
+        }
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            int idleSpins = 0;
+            while (running || head != tail.get()) {
+                long sequence = head;
+                int slot = (int) sequence & mask;
+                if (published.get(slot) != sequence) {
+                    if (idleSpins++ < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                    } else {
+                        awaitEvent(slot, sequence);
+                        idleSpins = 0;
+                    }
+                    continue;
+                }
+                idleSpins = 0;
+                write(slot);
+                tools[slot] = null;
+                head = sequence + 1;
+                written.increment();
+            }
+            if (segment != null) {
+                segment.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            running = false;
+            log.error("Invocation journal writer stopped, further events are discarded", e);
+        }
+    }
+
+    private void awaitEvent(int slot, long sequence) {
+        writerParked = true;
+        // Checked again after the flag is up: a producer publishing before it saw the flag is seen here
+        if (running && published.get(slot) != sequence) {
+            LockSupport.park(this);
+        }
+        writerParked = false;
+    }
+
+    private void write(int slot) throws IOException {
+        String tool = tools[slot];
+        Short toolId = segmentTools.get(tool);
+        int needed = JournalFormat.INVOCATION_SIZE + (toolId == null ? JournalFormat.MAX_TOOL_SIZE : 0) + 1;
+        if (segment.remaining() < needed) {
+            roll();
+            toolId = null;
+        }
+        if (toolId == null) {
+            toolId = defineTool(tool);
+        }
+        segment.put(JournalFormat.INVOCATION)
+                .putShort(toolId)
+                .putLong(timestamps[slot])
+                .putInt(argsHashes[slot])
+                .putLong(requestIdHi[slot])
+                .putLong(requestIdLo[slot])
+                .putLong(correlationIdHi[slot])
+                .putLong(correlationIdLo[slot])
+                .putLong(latencies[slot])
+                .put(outcomes[slot]);
+    }
+
+    private short defineTool(String tool) {
+        byte[] name = tool.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, JournalFormat.MAX_TOOL_NAME_BYTES);
+        short toolId = (short) segmentTools.size();
+        segment.put(JournalFormat.TOOL)
+                .putShort(toolId)
+                .putShort((short) length)
+                .put(name, 0, length);
+        segmentTools.put(tool, toolId);
+        return toolId;
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.put(JournalFormat.END);
+            segment.force();
+        }
+        String fileName = String.format("%s%013d-%04d%s", JournalFormat.FILE_PREFIX,
+                System.currentTimeMillis(), segmentCounter++ % 10_000, JournalFormat.FILE_SUFFIX);
+        Path file = directory.resolve(fileName);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(JournalFormat.MAGIC).putShort(JournalFormat.VERSION);
+        segmentTools.clear();
+        pruneSegments(file);
+    }
+
+    private void pruneSegments(Path current) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalReader::isSegment).sorted().forEach(segments::add);
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Path old = segments.get(i);
+            if (!old.equals(current)) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+}
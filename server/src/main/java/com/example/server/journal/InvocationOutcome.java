@@ -0,0 +1,42 @@
+package com.example.server.journal;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+public enum InvocationOutcome {
+    SUCCESS,
+
+    CLIENT_ERROR,
+
+    UPSTREAM_ERROR,
+
+    ERROR,
+
+    // Appended: the ordinal is the code written to the journal
+    CANCELLED;
+
+    private static final InvocationOutcome[] VALUES = values();
+
+    public static InvocationOutcome of(Throwable failure) {
+        if (failure instanceof HttpClientErrorException) {
+            return CLIENT_ERROR;
+        }
+        if (failure instanceof HttpServerErrorException || failure instanceof ResourceAccessException) {
+            return UPSTREAM_ERROR;
+        }
+        if (failure instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? CLIENT_ERROR : UPSTREAM_ERROR;
+        }
+        if (failure instanceof WebClientRequestException) {
+            return UPSTREAM_ERROR;
+        }
+        return ERROR;
+    }
+
+    static InvocationOutcome fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : ERROR;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.server.journal;
+
+/**
+ * Layout of journal segment files.
+ * <pre>
+ * segment    := header record* END
+ * header     := magic:int version:short
+ * TOOL       := 0x01 toolId:short length:short utf8:byte[length]
+ * INVOCATION := 0x02 toolId:short timestampMillis:long argsHash:int
+ *               requestIdHi:long requestIdLo:long correlationIdHi:long correlationIdLo:long
+ *               latencyNanos:long outcome:byte
+ * END        := 0x00 (unwritten space in a mapped segment reads as END)
+ * </pre>
+ * Tool names are written once per segment as a TOOL record and referenced by id afterwards, so each
+ * segment can be decoded on its own.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x4D43504A; // "MCPJ"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    static final byte END = 0x00;
+    static final byte TOOL = 0x01;
+    static final byte INVOCATION = 0x02;
+
+    static final int INVOCATION_SIZE = 1 + Short.BYTES + Long.BYTES + Integer.BYTES + 4 * Long.BYTES + Long.BYTES + 1;
+    static final int MAX_TOOL_NAME_BYTES = 1024;
+    static final int MAX_TOOL_SIZE = 1 + Short.BYTES + Short.BYTES + MAX_TOOL_NAME_BYTES;
+
+    static final String FILE_PREFIX = "invocations-";
+    static final String FILE_SUFFIX = ".journal";
+
+    private JournalFormat() {
+    }
+
+    /**
+     * Parses one half of a canonical UUID string without allocating; non-UUID values map to zero.
+     *
+     * @param high {@code true} for the most significant 64 bits
+     */
+    static long uuidBits(String value, boolean high) {
+        if (value == null || value.length() != 36) {
+            return 0L;
+        }
+        long bits = 0L;
+        int digits = 0;
+        int skip = high ? 0 : 16;
+        for (int i = 0; i < 36 && digits < skip + 16; i++) {
+            char c = value.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int nibble = Character.digit(c, 16);
+            if (nibble < 0) {
+                return 0L;
+            }
+            if (digits >= skip) {
+                bits = (bits << 4) | nibble;
+            }
+            digits++;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.server.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Offline decoder for {@link InvocationJournal} segments.
+ * <p>
+ * Usage: {@code java -cp server/target/classes com.example.server.journal.JournalReader <segment-file|directory>}
+ * prints one tab-separated line per invocation, oldest segment first.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    public record Entry(Instant timestamp, String tool, int argsHash, UUID requestId, UUID correlationId,
+                        long latencyNanos, InvocationOutcome outcome) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JournalReader <segment-file|directory>");
+            System.exit(2);
+        }
+        System.out.println("timestamp\ttool\targsHash\trequestId\tcorrelationId\tlatencyMicros\toutcome");
+        for (Path segment : segments(Path.of(args[0]))) {
+            read(segment, entry -> System.out.println(entry.timestamp()
+                    + "\t" + entry.tool()
+                    + "\t" + Integer.toHexString(entry.argsHash())
+                    + "\t" + entry.requestId()
+                    + "\t" + entry.correlationId()
+                    + "\t" + entry.latencyNanos() / 1_000
+                    + "\t" + entry.outcome()));
+        }
+    }
+
+    /**
+     * @return the segment itself, or the segments in a journal directory in write order
+     */
+    public static List<Path> segments(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(path)) {
+            files.filter(JournalReader::isSegment).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    public static void read(Path segment, Consumer<Entry> consumer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < JournalFormat.HEADER_SIZE || buffer.getInt() != JournalFormat.MAGIC) {
+            throw new IOException("Not an invocation journal segment: " + segment);
+        }
+        short version = buffer.getShort();
+        if (version != JournalFormat.VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + segment);
+        }
+
+        Map<Short, String> tools = new HashMap<>();
+        while (buffer.hasRemaining()) {
+            byte type = buffer.get();
+            if (type == JournalFormat.TOOL) {
+                short toolId = buffer.getShort();
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                tools.put(toolId, new String(name, StandardCharsets.UTF_8));
+            } else if (type == JournalFormat.INVOCATION) {
+                String tool = tools.getOrDefault(buffer.getShort(), "?");
+                Instant timestamp = Instant.ofEpochMilli(buffer.getLong());
+                int argsHash = buffer.getInt();
+                UUID requestId = new UUID(buffer.getLong(), buffer.getLong());
+                UUID correlationId = new UUID(buffer.getLong(), buffer.getLong());
+                long latencyNanos = buffer.getLong();
+                InvocationOutcome outcome = InvocationOutcome.fromCode(buffer.get());
+                consumer.accept(new Entry(timestamp, tool, argsHash, requestId, correlationId, latencyNanos, outcome));
+            } else {
+                return;
+            }
+        }
+    }
+
+    static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(JournalFormat.FILE_PREFIX) && name.endsWith(JournalFormat.FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.server.metrics;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejected tasks before handing them to the delegate policy.
+ */
+public class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final RejectedExecutionHandler delegate;
+    private final LongAdder rejected = new LongAdder();
+
+    public CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.increment();
+        delegate.rejectedExecution(task, executor);
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.server.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+
+/**
+ * Exposes the tool connection pool statistics so the pool can be sized from real traffic.
+ */
+public class HttpClientPoolMetrics implements MeterBinder {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tools.http.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Connections currently leased from the tool connection pool")
+                .register(registry);
+        Gauge.builder("tools.http.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requests waiting for a connection from the tool connection pool")
+                .register(registry);
+        Gauge.builder("tools.http.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle connections available in the tool connection pool")
+                .register(registry);
+        Gauge.builder("tools.http.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .description("Maximum size of the tool connection pool")
+                .register(registry);
+    }
+}
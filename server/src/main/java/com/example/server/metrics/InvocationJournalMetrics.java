@@ -0,0 +1,34 @@
+package com.example.server.metrics;
+
+import com.example.server.journal.InvocationJournal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes written and dropped journal events and the writer backlog.
+ */
+public class InvocationJournalMetrics implements MeterBinder {
+
+    private final InvocationJournal journal;
+
+    public InvocationJournalMetrics(InvocationJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tools.journal.events", journal, InvocationJournal::writtenCount)
+                .tag("result", "written")
+                .description("Tool invocation events handled by the journal")
+                .register(registry);
+        FunctionCounter.builder("tools.journal.events", journal, InvocationJournal::droppedCount)
+                .tag("result", "dropped")
+                .description("Tool invocation events handled by the journal")
+                .register(registry);
+        Gauge.builder("tools.journal.pending", journal, InvocationJournal::pendingCount)
+                .description("Events waiting for the journal writer")
+                .register(registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.server.metrics;
+
+import com.example.server.coalescing.RequestCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes how many tool calls went upstream and how many were collapsed onto an in-flight call.
+ */
+public class RequestCoalescerMetrics implements MeterBinder {
+
+    private final RequestCoalescer coalescer;
+
+    public RequestCoalescerMetrics(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tools.coalescing.calls", coalescer, RequestCoalescer::executedCount)
+                .tag("result", "executed")
+                .description("Tool calls that passed through the coalescing layer")
+                .register(registry);
+        FunctionCounter.builder("tools.coalescing.calls", coalescer, RequestCoalescer::collapsedCount)
+                .tag("result", "collapsed")
+                .description("Tool calls that passed through the coalescing layer")
+                .register(registry);
+        Gauge.builder("tools.coalescing.in-flight", coalescer, RequestCoalescer::inFlightCount)
+                .description("Distinct tool calls currently in flight")
+                .register(registry);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.server.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Adds a rejection counter to the {@code executor.*} metrics Spring Boot already publishes for the tool task
+ * executor (queue depth, active threads, pool size). The virtual-thread executor has no queue and does not
+ * reject; it blocks submitters at its concurrency limit.
+ */
+public class TaskExecutorMetrics implements MeterBinder {
+
+    private final String name;
+    private final Executor executor;
+
+    public TaskExecutorMetrics(String name, Executor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (executor instanceof ThreadPoolTaskExecutor pool
+                && pool.getThreadPoolExecutor().getRejectedExecutionHandler() instanceof CountingRejectedExecutionHandler handler) {
+            FunctionCounter.builder("executor.rejected", handler, CountingRejectedExecutionHandler::rejectedCount)
+                    .tag("name", name)
+                    .description("Tasks rejected by the executor")
+                    .register(registry);
+        }
+    }
+}
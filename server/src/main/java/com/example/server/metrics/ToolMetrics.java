@@ -0,0 +1,79 @@
+package com.example.server.metrics;
+
+import com.example.server.journal.InvocationOutcome;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers for tool invocations: {@code tools.invocation} for the whole call and
+ * {@code tools.invocation.phase} for its context restore, upstream HTTP and response mapping phases, both
+ * tagged by tool and outcome and published as percentile histograms.
+ * <p>
+ * Timers are registered on first use of a tool/phase/outcome combination and then read from a per-tool
+ * array, so recording does not go through the registry.
+ */
+public class ToolMetrics {
+
+    public enum Phase {
+        CONTEXT_RESTORE,
+
+        UPSTREAM,
+
+        MAPPING;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final InvocationOutcome[] OUTCOMES = InvocationOutcome.values();
+    private static final Phase[] PHASES = Phase.values();
+    // Slot 0 of each phase row holds the overall timer
+    private static final int ROWS = PHASES.length + 1;
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public ToolMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordInvocation(String tool, long nanos, InvocationOutcome outcome) {
+        timer(tool, 0, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPhase(String tool, Phase phase, long nanos, InvocationOutcome outcome) {
+        timer(tool, phase.ordinal() + 1, outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String tool, int row, InvocationOutcome outcome) {
+        Timer[] toolTimers = timers.computeIfAbsent(tool, t -> new Timer[ROWS * OUTCOMES.length]);
+        int index = row * OUTCOMES.length + outcome.ordinal();
+        Timer timer = toolTimers[index];
+        if (timer == null) {
+            // Racing threads get the same meter back from the registry
+            timer = register(tool, row, outcome);
+            toolTimers[index] = timer;
+        }
+        return timer;
+    }
+
+    private Timer register(String tool, int row, InvocationOutcome outcome) {
+        Timer.Builder builder;
+        if (row == 0) {
+            builder = Timer.builder("tools.invocation")
+                    .description("Tool invocation latency");
+        } else {
+            builder = Timer.builder("tools.invocation.phase")
+                    .tag("phase", PHASES[row - 1].tag)
+                    .description("Tool invocation latency by phase");
+        }
+        return builder.tag("tool", tool)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
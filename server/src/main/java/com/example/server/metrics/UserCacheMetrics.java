@@ -0,0 +1,42 @@
+package com.example.server.metrics;
+
+import com.example.server.cache.IntKeyedLruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes hit, miss and eviction counters of the {@code getUserById} cache.
+ */
+public class UserCacheMetrics implements MeterBinder {
+
+    private final IntKeyedLruCache<?> cache;
+
+    public UserCacheMetrics(IntKeyedLruCache<?> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tools.user.cache.requests", cache, IntKeyedLruCache::hitCount)
+                .tag("result", "hit")
+                .description("User cache lookups")
+                .register(registry);
+        FunctionCounter.builder("tools.user.cache.requests", cache, IntKeyedLruCache::missCount)
+                .tag("result", "miss")
+                .description("User cache lookups")
+                .register(registry);
+        FunctionCounter.builder("tools.user.cache.evictions", cache, IntKeyedLruCache::sizeEvictionCount)
+                .tag("cause", "size")
+                .description("Entries removed from the user cache")
+                .register(registry);
+        FunctionCounter.builder("tools.user.cache.evictions", cache, IntKeyedLruCache::expirationCount)
+                .tag("cause", "expired")
+                .description("Entries removed from the user cache")
+                .register(registry);
+        Gauge.builder("tools.user.cache.size", cache, IntKeyedLruCache::size)
+                .description("Entries currently held by the user cache")
+                .register(registry);
+    }
+}
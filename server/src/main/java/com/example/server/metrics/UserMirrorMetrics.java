@@ -0,0 +1,63 @@
+package com.example.server.metrics;
+
+import com.example.server.mirror.UserMirror;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the size, age and hit rate of the local user mirror, and how fast it warmed up after startup.
+ */
+public class UserMirrorMetrics implements MeterBinder {
+
+    private final UserMirror mirror;
+
+    public UserMirrorMetrics(UserMirror mirror) {
+        this.mirror = mirror;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tools.mirror.searches", mirror, UserMirror::localSearchCount)
+                .tag("source", "mirror")
+                .description("searchUsers calls by where they were answered")
+                .register(registry);
+        FunctionCounter.builder("tools.mirror.searches", mirror, UserMirror::fallbackCount)
+                .tag("source", "upstream")
+                .description("searchUsers calls by where they were answered")
+                .register(registry);
+        FunctionCounter.builder("tools.mirror.refreshes", mirror, UserMirror::refreshCount)
+                .tag("outcome", "success")
+                .description("Full reloads of the user mirror")
+                .register(registry);
+        FunctionCounter.builder("tools.mirror.refreshes", mirror, UserMirror::refreshFailureCount)
+                .tag("outcome", "failure")
+                .description("Full reloads of the user mirror")
+                .register(registry);
+        Gauge.builder("tools.mirror.users", mirror, UserMirror::size)
+                .description("Users held by the mirror")
+                .register(registry);
+        Gauge.builder("tools.mirror.age", mirror, UserMirror::ageSeconds)
+                .baseUnit("seconds")
+                .description("Time since the mirror was last loaded")
+                .register(registry);
+        Gauge.builder("tools.mirror.snapshot.load", mirror, UserMirror::snapshotLoadSeconds)
+                .baseUnit("seconds")
+                .description("Time taken to map and validate the startup snapshot")
+                .register(registry);
+        Gauge.builder("tools.mirror.startup.to.warm", mirror, UserMirror::snapshotWarmSeconds)
+                .tag("source", "snapshot")
+                .baseUnit("seconds")
+                .description("JVM uptime when the mirror could first answer searches, by data source")
+                .register(registry);
+        Gauge.builder("tools.mirror.startup.to.warm", mirror, UserMirror::upstreamWarmSeconds)
+                .tag("source", "upstream")
+                .baseUnit("seconds")
+                .description("JVM uptime when the mirror could first answer searches, by data source")
+                .register(registry);
+        Gauge.builder("tools.mirror.serving.snapshot", mirror, m -> m.isServingSnapshot() ? 1 : 0)
+                .description("1 while searches are answered from the mapped startup snapshot")
+                .register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.server.mirror;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot of the user mirror, memory-mapped read-only on startup.
+ * <pre>
+ * snapshot := header index records
+ * header   := magic:int version:short reserved:short createdAtMillis:long
+ * index    := userCount:int trigramCount:int postingsCount:int textBytes:int
+ *             trigrams:long[trigramCount] offsets:int[trigramCount + 1] postings:int[postingsCount]
+ *             textOffsets:int[userCount + 1] texts:byte[textBytes]
+ * records  := recordOffsets:int[userCount + 1] json:byte[recordOffsets[userCount]]
+ * </pre>
+ * All values are big-endian. The header and index counts are 32 bytes, so the trigram keys start
+ * 8-byte aligned. Records are the users' upstream JSON in index order. A snapshot is written to a
+ * temporary file and moved into place, so readers never see a partial file.
+ */
+final class MirrorSnapshot {
+
+    static final int MAGIC = 0x4D43504D; // "MCPM"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + 2 * Short.BYTES + Long.BYTES;
+
+    private final long createdAtMillis;
+    private final UserIndex index;
+    private final IntBuffer recordOffsets;
+    private final ByteBuffer records;
+
+    private MirrorSnapshot(long createdAtMillis, UserIndex index, IntBuffer recordOffsets, ByteBuffer records) {
+        this.createdAtMillis = createdAtMillis;
+        this.index = index;
+        this.recordOffsets = recordOffsets;
+        this.records = records;
+    }
+
+    static void write(Path file, long createdAtMillis, UserIndex index, List<byte[]> records) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeLong(createdAtMillis);
+                index.writeTo(out);
+                int offset = 0;
+                out.writeInt(offset);
+                for (byte[] record : records) {
+                    offset += record.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] record : records) {
+                    out.write(record);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a snapshot read-only and validates its layout; nothing is copied onto the heap.
+     */
+    static MirrorSnapshot map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("User mirror snapshot too large: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a user mirror snapshot: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported user mirror snapshot version " + version + " in " + file);
+        }
+        buffer.getShort();
+        long createdAtMillis = buffer.getLong();
+        try {
+            UserIndex index = UserIndex.readFrom(buffer);
+            long offsetsLength = (index.size() + 1L) * Integer.BYTES;
+            if (offsetsLength > buffer.remaining()) {
+                throw new IllegalArgumentException("Record offsets exceed the snapshot");
+            }
+            IntBuffer recordOffsets = buffer.slice(buffer.position(), (int) offsetsLength).asIntBuffer();
+            buffer.position(buffer.position() + (int) offsetsLength);
+            if (recordOffsets.get(index.size()) != buffer.remaining()) {
+                throw new IllegalArgumentException("Record section length mismatch");
+            }
+            return new MirrorSnapshot(createdAtMillis, index, recordOffsets, buffer.slice());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IOException("Corrupt user mirror snapshot " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    long createdAtMillis() {
+        return createdAtMillis;
+    }
+
+    UserIndex index() {
+        return index;
+    }
+
+    /**
+     * @return a view of the user's JSON record in the mapped file
+     */
+    ByteBuffer record(int position) {
+        int start = recordOffsets.get(position);
+        return records.slice(start, recordOffsets.get(position + 1) - start);
+    }
+}
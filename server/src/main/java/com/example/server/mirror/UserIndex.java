@@ -0,0 +1,310 @@
+package com.example.server.mirror;
+
+import com.example.server.model.User;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable trigram index over the searchable user fields (names, email, username, company).
+ * <p>
+ * Postings are stored in compressed-sparse-row form: sorted trigram keys, offsets into one shared array
+ * of ascending user positions. A query is answered by intersecting the postings of its trigrams, rarest
+ * first, and confirming each candidate with a substring check on the user's lower-cased UTF-8 text;
+ * queries shorter than a trigram scan every user. All sections are buffers, so the same index is served
+ * from the heap after a refresh and straight from a memory-mapped {@link MirrorSnapshot} after a restart.
+ */
+final class UserIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final int size;
+    private final LongBuffer trigrams;
+    private final IntBuffer offsets;
+    private final IntBuffer postings;
+    private final IntBuffer textOffsets;
+    private final ByteBuffer texts;
+
+    private UserIndex(int size, LongBuffer trigrams, IntBuffer offsets, IntBuffer postings,
+                      IntBuffer textOffsets, ByteBuffer texts) {
+        this.size = size;
+        this.trigrams = trigrams;
+        this.offsets = offsets;
+        this.postings = postings;
+        this.textOffsets = textOffsets;
+        this.texts = texts;
+    }
+
+    static UserIndex build(List<User> users) {
+        int size = users.size();
+        int[] textOffsets = new int[size + 1];
+        byte[][] utf8 = new byte[size][];
+        Map<Long, int[]> lists = new HashMap<>();
+        int total = 0;
+        for (int position = 0; position < size; position++) {
+            String text = searchableText(users.get(position));
+            utf8[position] = text.getBytes(StandardCharsets.UTF_8);
+            textOffsets[position + 1] = textOffsets[position] + utf8[position].length;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                if (text.charAt(i) == SEPARATOR || text.charAt(i + 1) == SEPARATOR || text.charAt(i + 2) == SEPARATOR) {
+                    continue;
+                }
+                long key = trigram(text, i);
+                int[] list = lists.computeIfAbsent(key, k -> new int[5]);
+                // list[0] holds the size; positions arrive in ascending order
+                int listSize = list[0];
+                if (listSize > 0 && list[listSize] == position) {
+                    continue;
+                }
+                if (listSize + 1 == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                    lists.put(key, list);
+                }
+                list[listSize + 1] = position;
+                list[0] = listSize + 1;
+                total++;
+            }
+        }
+
+        long[] trigrams = new long[lists.size()];
+        int k = 0;
+        for (long key : lists.keySet()) {
+            trigrams[k++] = key;
+        }
+        Arrays.sort(trigrams);
+        int[] offsets = new int[trigrams.length + 1];
+        int[] postings = new int[total];
+        int offset = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            int[] list = lists.get(trigrams[i]);
+            System.arraycopy(list, 1, postings, offset, list[0]);
+            offsets[i] = offset;
+            offset += list[0];
+        }
+        offsets[trigrams.length] = offset;
+
+        byte[] texts = new byte[textOffsets[size]];
+        for (int position = 0; position < size; position++) {
+            System.arraycopy(utf8[position], 0, texts, textOffsets[position], utf8[position].length);
+        }
+        return new UserIndex(size, LongBuffer.wrap(trigrams), IntBuffer.wrap(offsets), IntBuffer.wrap(postings),
+                IntBuffer.wrap(textOffsets), ByteBuffer.wrap(texts));
+    }
+
+    /**
+     * Writes the index section described in {@link MirrorSnapshot}.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(trigrams.capacity());
+        out.writeInt(postings.capacity());
+        out.writeInt(texts.capacity());
+        for (int i = 0; i < trigrams.capacity(); i++) {
+            out.writeLong(trigrams.get(i));
+        }
+        for (int i = 0; i < offsets.capacity(); i++) {
+            out.writeInt(offsets.get(i));
+        }
+        for (int i = 0; i < postings.capacity(); i++) {
+            out.writeInt(postings.get(i));
+        }
+        for (int i = 0; i < textOffsets.capacity(); i++) {
+            out.writeInt(textOffsets.get(i));
+        }
+        for (int i = 0; i < texts.capacity(); i++) {
+            out.writeByte(texts.get(i));
+        }
+    }
+
+    /**
+     * Reads an index section in place; the returned index keeps views of {@code buffer}, whose position
+     * is advanced past the section.
+     */
+    static UserIndex readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        int trigramCount = buffer.getInt();
+        int postingsCount = buffer.getInt();
+        int textBytes = buffer.getInt();
+        if (size < 0 || trigramCount < 0 || postingsCount < 0 || textBytes < 0) {
+            throw new IllegalArgumentException("Negative index section length");
+        }
+        LongBuffer trigrams = slice(buffer, (long) trigramCount * Long.BYTES).asLongBuffer();
+        IntBuffer offsets = slice(buffer, (trigramCount + 1L) * Integer.BYTES).asIntBuffer();
+        IntBuffer postings = slice(buffer, (long) postingsCount * Integer.BYTES).asIntBuffer();
+        IntBuffer textOffsets = slice(buffer, (size + 1L) * Integer.BYTES).asIntBuffer();
+        ByteBuffer texts = slice(buffer, textBytes);
+        if (offsets.get(trigramCount) != postingsCount || textOffsets.get(size) != textBytes) {
+            throw new IllegalArgumentException("Inconsistent index section");
+        }
+        return new UserIndex(size, trigrams, offsets, postings, textOffsets, texts);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param query lower-cased query
+     * @return positions of the users whose searchable fields contain the query, ascending
+     */
+    int[] search(String query) {
+        byte[] needle = query.getBytes(StandardCharsets.UTF_8);
+        if (query.length() < 3) {
+            return scan(needle);
+        }
+        int[] slots = new int[query.length() - 2];
+        for (int i = 0; i < slots.length; i++) {
+            int slot = find(trigram(query, i));
+            if (slot < 0) {
+                return new int[0];
+            }
+            slots[i] = slot;
+        }
+        // Rarest trigram first keeps every intersection no larger than the shortest postings list
+        sortByPostingsLength(slots);
+        int[] candidates = new int[length(slots[0])];
+        postings.get(offsets.get(slots[0]), candidates);
+        for (int i = 1; i < slots.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, slots[i]);
+        }
+        if (slots.length == 1) {
+            return candidates;
+        }
+        // Trigram hits do not guarantee adjacency, so confirm the actual substring
+        int matches = 0;
+        for (int position : candidates) {
+            if (contains(position, needle)) {
+                candidates[matches++] = position;
+            }
+        }
+        return Arrays.copyOf(candidates, matches);
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int[] scan(byte[] needle) {
+        int[] matches = new int[size];
+        int count = 0;
+        for (int position = 0; position < size; position++) {
+            if (contains(position, needle)) {
+                matches[count++] = position;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private boolean contains(int position, byte[] needle) {
+        int end = textOffsets.get(position + 1) - needle.length;
+        for (int start = textOffsets.get(position); start <= end; start++) {
+            int i = 0;
+            while (i < needle.length && texts.get(start + i) == needle[i]) {
+                i++;
+            }
+            if (i == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int find(long key) {
+        int low = 0;
+        int high = trigrams.capacity() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = trigrams.get(mid);
+            if (value < key) {
+                low = mid + 1;
+            } else if (value > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int length(int slot) {
+        return offsets.get(slot + 1) - offsets.get(slot);
+    }
+
+    private void sortByPostingsLength(int[] slots) {
+        for (int i = 1; i < slots.length; i++) {
+            int slot = slots[i];
+            int length = length(slot);
+            int j = i - 1;
+            while (j >= 0 && length(slots[j]) > length) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+
+    private int[] intersect(int[] candidates, int slot) {
+        int[] result = new int[Math.min(candidates.length, length(slot))];
+        int count = 0;
+        int i = 0;
+        int j = offsets.get(slot);
+        int end = offsets.get(slot + 1);
+        while (i < candidates.length && j < end) {
+            int posting = postings.get(j);
+            if (candidates[i] == posting) {
+                result[count++] = posting;
+                i++;
+                j++;
+            } else if (candidates[i] < posting) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long length) {
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Index section exceeds the snapshot");
+        }
+        ByteBuffer slice = buffer.slice(buffer.position(), (int) length);
+        buffer.position(buffer.position() + (int) length);
+        return slice;
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static String searchableText(User user) {
+        StringBuilder text = new StringBuilder(128);
+        append(text, user.getFirstName());
+        append(text, user.getLastName());
+        append(text, user.getMaidenName());
+        append(text, user.getEmail());
+        append(text, user.getUsername());
+        Map<String, Object> company = user.getCompany();
+        if (company != null) {
+            append(text, company.get("name"));
+            append(text, company.get("department"));
+            append(text, company.get("title"));
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void append(StringBuilder text, Object value) {
+        if (value instanceof String s && !s.isEmpty()) {
+            text.append(s).append(SEPARATOR);
+        }
+    }
+}
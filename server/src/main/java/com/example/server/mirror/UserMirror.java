@@ -0,0 +1,317 @@
+package com.example.server.mirror;
+
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.model.User;
+import com.example.server.model.UsersResponse;
+import com.example.server.projection.UserProjection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local copy of the upstream user dataset for {@code searchUsers}.
+ * <p>
+ * {@link #refresh()} pages through {@code /users} and swaps in a new immutable dataset: the users as
+ * {@link CompactUser} records plus a {@link UserIndex} over their searchable fields. Searches read the
+ * current dataset without locking and answer in microseconds; {@link #search} returns {@code null} when
+ * the mirror is disabled, not loaded yet or older than {@code maxStaleness}, and the caller falls back to
+ * upstream.
+ * <p>
+ * When a snapshot file is configured, every refresh also writes a {@link MirrorSnapshot}, and
+ * {@link #start()} memory-maps the last one so a restarted server answers from the mapped region until
+ * its first refresh completes. The mapped data is as old as the snapshot, so a snapshot older than
+ * {@code maxStaleness} is stale from the start and searches go upstream until that refresh.
+ */
+@Slf4j
+public class UserMirror {
+
+    // dummyjson returns the first 30 search results when no limit is given, as searchUsers does
+    static final int SEARCH_LIMIT = 30;
+
+    private final boolean enabled;
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final CompactUserCodec codec;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final long maxStalenessNanos;
+    private final Path snapshotFile;
+    private final Duration snapshotMaxAge;
+
+    private volatile Dataset dataset;
+    private volatile long lastRefreshNanos;
+
+    private final LongAdder localSearches = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private volatile double snapshotLoadSeconds = Double.NaN;
+    private volatile double snapshotWarmSeconds = Double.NaN;
+    private volatile double upstreamWarmSeconds = Double.NaN;
+
+    /**
+     * @param snapshotFile   where to persist and restore the dataset; {@code null} keeps it in memory only
+     * @param snapshotMaxAge oldest snapshot still served on startup
+     */
+    public UserMirror(RestTemplate restTemplate, String baseUrl, CompactUserCodec codec, ObjectMapper objectMapper,
+                      int pageSize, Duration maxStaleness, Path snapshotFile, Duration snapshotMaxAge) {
+        this(true, restTemplate, baseUrl, codec, objectMapper, pageSize, maxStaleness, snapshotFile, snapshotMaxAge);
+    }
+
+    private UserMirror(boolean enabled, RestTemplate restTemplate, String baseUrl, CompactUserCodec codec,
+                       ObjectMapper objectMapper, int pageSize, Duration maxStaleness, Path snapshotFile,
+                       Duration snapshotMaxAge) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Mirror page size must be positive: " + pageSize);
+        }
+        this.enabled = enabled;
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        this.codec = codec;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.snapshotFile = snapshotFile;
+        this.snapshotMaxAge = snapshotMaxAge;
+    }
+
+    /**
+     * A mirror that never loads and sends every search upstream.
+     */
+    public static UserMirror disabled() {
+        return new UserMirror(false, null, null, null, null, 1, Duration.ZERO, null, Duration.ZERO);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Maps the last snapshot, if there is a recent enough one. A missing, outdated or unreadable snapshot
+     * only means the mirror starts cold.
+     */
+    public synchronized void start() {
+        if (!enabled || snapshotFile == null || dataset != null || !Files.isRegularFile(snapshotFile)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            MirrorSnapshot snapshot = MirrorSnapshot.map(snapshotFile);
+            long ageMillis = System.currentTimeMillis() - snapshot.createdAtMillis();
+            if (ageMillis > snapshotMaxAge.toMillis()) {
+                log.info("Ignoring user mirror snapshot {} written {} min ago", snapshotFile,
+                        Duration.ofMillis(ageMillis).toMinutes());
+                return;
+            }
+            dataset = new MappedDataset(snapshot, objectMapper);
+            long loaded = System.nanoTime();
+            // The data is as old as the snapshot, not as the mapping; max-staleness and the age gauge see that
+            lastRefreshNanos = loaded - TimeUnit.MILLISECONDS.toNanos(Math.max(0, ageMillis));
+            snapshotLoadSeconds = (loaded - start) / 1e9;
+            if (isFresh()) {
+                snapshotWarmSeconds = uptimeSeconds();
+            }
+            log.info("User mirror mapped {} users from {} in {} ms", snapshot.index().size(), snapshotFile,
+                    Duration.ofNanos(loaded - start).toMillis());
+        } catch (IOException e) {
+            log.warn("User mirror snapshot {} not usable, starting cold", snapshotFile, e);
+        }
+    }
+
+    /**
+     * Reloads the whole dataset from upstream. On failure the previous dataset is kept and keeps
+     * serving until it goes stale.
+     */
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<User> users = new ArrayList<>();
+        try {
+            int total;
+            do {
+                UsersResponse page = restTemplate.getForObject(
+                        baseUrl + "/users?limit=" + pageSize + "&skip=" + users.size(), UsersResponse.class);
+                if (page == null || page.getUsers() == null || page.getUsers().isEmpty()) {
+                    break;
+                }
+                users.addAll(page.getUsers());
+                total = page.getTotal();
+            } while (users.size() < total);
+            load(users);
+            refreshes.increment();
+            if (Double.isNaN(upstreamWarmSeconds)) {
+                upstreamWarmSeconds = uptimeSeconds();
+            }
+            log.info("User mirror loaded {} users in {} ms", users.size(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("User mirror refresh failed, keeping the previous dataset", e);
+            return;
+        }
+        if (snapshotFile != null) {
+            writeSnapshot(users);
+        }
+    }
+
+    /**
+     * Replaces the mirrored dataset; users are kept in the given order.
+     */
+    public void load(List<User> users) {
+        CompactUser[] compact = new CompactUser[users.size()];
+        for (int i = 0; i < compact.length; i++) {
+            compact[i] = codec.encode(users.get(i));
+        }
+        dataset = new HeapDataset(compact, UserIndex.build(users), codec);
+        lastRefreshNanos = System.nanoTime();
+    }
+
+    /**
+     * Case-insensitive substring search over first, last and maiden name, email, username and the
+     * company name, department and title.
+     *
+     * @return the first {@value #SEARCH_LIMIT} matches, or {@code null} when the mirror cannot answer
+     */
+    public UsersResponse search(String query, UserProjection projection) {
+        Dataset current = dataset;
+        if (current == null || !isFresh()) {
+            fallbacks.increment();
+            return null;
+        }
+        int[] matches = current.index().search(UserIndex.normalize(query));
+        int count = Math.min(matches.length, SEARCH_LIMIT);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(projection.apply(current.user(matches[i])));
+        }
+        localSearches.increment();
+        return new UsersResponse(users, matches.length, 0, count);
+    }
+
+    public boolean isFresh() {
+        return dataset != null && System.nanoTime() - lastRefreshNanos <= maxStalenessNanos;
+    }
+
+    /**
+     * @return whether searches are currently served from a mapped snapshot rather than a refresh
+     */
+    public boolean isServingSnapshot() {
+        return dataset instanceof MappedDataset;
+    }
+
+    public int size() {
+        Dataset current = dataset;
+        return current == null ? 0 : current.index().size();
+    }
+
+    /**
+     * @return age of the mirrored data in seconds (since the refresh that fetched it, which for a mapped
+     * snapshot predates startup), or {@code NaN} before the first load
+     */
+    public double ageSeconds() {
+        return dataset == null ? Double.NaN : (System.nanoTime() - lastRefreshNanos) / 1e9;
+    }
+
+    /**
+     * @return seconds spent mapping and validating the startup snapshot, or {@code NaN} if none was used
+     */
+    public double snapshotLoadSeconds() {
+        return snapshotLoadSeconds;
+    }
+
+    /**
+     * @return JVM uptime when searches were first served from the snapshot, or {@code NaN}
+     */
+    public double snapshotWarmSeconds() {
+        return snapshotWarmSeconds;
+    }
+
+    /**
+     * @return JVM uptime when the first refresh from upstream completed, or {@code NaN}
+     */
+    public double upstreamWarmSeconds() {
+        return upstreamWarmSeconds;
+    }
+
+    public long localSearchCount() {
+        return localSearches.sum();
+    }
+
+    public long fallbackCount() {
+        return fallbacks.sum();
+    }
+
+    public long refreshCount() {
+        return refreshes.sum();
+    }
+
+    public long refreshFailureCount() {
+        return refreshFailures.sum();
+    }
+
+    private void writeSnapshot(List<User> users) {
+        long start = System.nanoTime();
+        try {
+            List<byte[]> records = new ArrayList<>(users.size());
+            for (User user : users) {
+                records.add(objectMapper.writeValueAsBytes(user));
+            }
+            MirrorSnapshot.write(snapshotFile, System.currentTimeMillis(), dataset.index(), records);
+            log.debug("User mirror snapshot written to {} in {} ms", snapshotFile,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException e) {
+            log.warn("Could not write user mirror snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private static double uptimeSeconds() {
+        return ManagementFactory.getRuntimeMXBean().getUptime() / 1e3;
+    }
+
+    private interface Dataset {
+
+        UserIndex index();
+
+        User user(int position);
+    }
+
+    private record HeapDataset(CompactUser[] users, UserIndex index, CompactUserCodec codec) implements Dataset {
+
+        @Override
+        public User user(int position) {
+            return codec.decode(users[position]);
+        }
+    }
+
+    private record MappedDataset(MirrorSnapshot snapshot, ObjectMapper objectMapper) implements Dataset {
+
+        @Override
+        public UserIndex index() {
+            return snapshot.index();
+        }
+
+        @Override
+        public User user(int position) {
+            try {
+                return objectMapper.readValue(new ByteBufferBackedInputStream(snapshot.record(position)), User.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unreadable user record in mirror snapshot", e);
+            }
+        }
+    }
+}
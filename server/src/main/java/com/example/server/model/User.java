@@ -1,20 +1,23 @@
 package com.example.server.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.Map;
 
+// Fields left out by a projection stay null and are omitted from tool results
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
     private int id;
     private String firstName;
     private String lastName;
     private String maidenName;
-    private int age;
+    private Integer age;
     private String gender;
     private String email;
     private String phone;
@@ -23,8 +26,8 @@ public class User {
     private String birthDate;
     private String image;
     private String bloodGroup;
-    private double height;
-    private double weight;
+    private Double height;
+    private Double weight;
     private String eyeColor;
     private Map<String, String> hair;
     private String ip;
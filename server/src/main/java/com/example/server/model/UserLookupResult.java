@@ -0,0 +1,14 @@
+package com.example.server.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupResult {
+    private Integer id;
+    private User user;
+    private String error;
+}
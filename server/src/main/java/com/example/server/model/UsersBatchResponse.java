@@ -0,0 +1,16 @@
+package com.example.server.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsersBatchResponse {
+    private List<UserLookupResult> results;
+    private int found;
+    private int failed;
+}
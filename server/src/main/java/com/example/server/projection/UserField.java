@@ -0,0 +1,133 @@
+package com.example.server.projection;
+
+import com.example.server.model.User;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Top-level {@link User} properties as named in the upstream JSON, each with a reader that sets the value
+ * straight from the current parser token.
+ */
+public enum UserField {
+    ID("id", (p, u) -> u.setId(p.getValueAsInt())),
+    FIRST_NAME("firstName", (p, u) -> u.setFirstName(p.getValueAsString())),
+    LAST_NAME("lastName", (p, u) -> u.setLastName(p.getValueAsString())),
+    MAIDEN_NAME("maidenName", (p, u) -> u.setMaidenName(p.getValueAsString())),
+    AGE("age", (p, u) -> u.setAge(intOrNull(p))),
+    GENDER("gender", (p, u) -> u.setGender(p.getValueAsString())),
+    EMAIL("email", (p, u) -> u.setEmail(p.getValueAsString())),
+    PHONE("phone", (p, u) -> u.setPhone(p.getValueAsString())),
+    USERNAME("username", (p, u) -> u.setUsername(p.getValueAsString())),
+    PASSWORD("password", (p, u) -> u.setPassword(p.getValueAsString())),
+    BIRTH_DATE("birthDate", (p, u) -> u.setBirthDate(p.getValueAsString())),
+    IMAGE("image", (p, u) -> u.setImage(p.getValueAsString())),
+    BLOOD_GROUP("bloodGroup", (p, u) -> u.setBloodGroup(p.getValueAsString())),
+    HEIGHT("height", (p, u) -> u.setHeight(doubleOrNull(p))),
+    WEIGHT("weight", (p, u) -> u.setWeight(doubleOrNull(p))),
+    EYE_COLOR("eyeColor", (p, u) -> u.setEyeColor(p.getValueAsString())),
+    HAIR("hair", (p, u) -> u.setHair(p.readValueAs(Types.STRING_MAP))),
+    IP("ip", (p, u) -> u.setIp(p.getValueAsString())),
+    ADDRESS("address", (p, u) -> u.setAddress(p.readValueAs(Types.OBJECT_MAP))),
+    MAC_ADDRESS("macAddress", (p, u) -> u.setMacAddress(p.getValueAsString())),
+    UNIVERSITY("university", (p, u) -> u.setUniversity(p.getValueAsString())),
+    BANK("bank", (p, u) -> u.setBank(p.readValueAs(Types.OBJECT_MAP))),
+    COMPANY("company", (p, u) -> u.setCompany(p.readValueAs(Types.OBJECT_MAP))),
+    EIN("ein", (p, u) -> u.setEin(p.getValueAsString())),
+    SSN("ssn", (p, u) -> u.setSsn(p.getValueAsString())),
+    USER_AGENT("userAgent", (p, u) -> u.setUserAgent(p.getValueAsString())),
+    CRYPTO("crypto", (p, u) -> u.setCrypto(p.readValueAs(Types.STRING_MAP))),
+    ROLE("role", (p, u) -> u.setRole(p.getValueAsString()));
+
+    private static final Map<String, UserField> BY_JSON_NAME = new HashMap<>();
+
+    static {
+        for (UserField field : values()) {
+            BY_JSON_NAME.put(field.jsonName, field);
+        }
+    }
+
+    private final String jsonName;
+    private final Reader reader;
+
+    UserField(String jsonName, Reader reader) {
+        this.jsonName = jsonName;
+        this.reader = reader;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @return the field for an upstream property name, or {@code null} if {@link User} does not map it
+     */
+    public static UserField forJsonName(String name) {
+        return BY_JSON_NAME.get(name);
+    }
+
+    void read(JsonParser parser, User user) throws IOException {
+        reader.read(parser, user);
+    }
+
+    /**
+     * Resets the field on a fully populated user, as if a projection had left it out. The id is kept.
+     */
+    void clear(User user) {
+        switch (this) {
+            case ID -> {
+            }
+            case FIRST_NAME -> user.setFirstName(null);
+            case LAST_NAME -> user.setLastName(null);
+            case MAIDEN_NAME -> user.setMaidenName(null);
+            case AGE -> user.setAge(null);
+            case GENDER -> user.setGender(null);
+            case EMAIL -> user.setEmail(null);
+            case PHONE -> user.setPhone(null);
+            case USERNAME -> user.setUsername(null);
+            case PASSWORD -> user.setPassword(null);
+            case BIRTH_DATE -> user.setBirthDate(null);
+            case IMAGE -> user.setImage(null);
+            case BLOOD_GROUP -> user.setBloodGroup(null);
+            case HEIGHT -> user.setHeight(null);
+            case WEIGHT -> user.setWeight(null);
+            case EYE_COLOR -> user.setEyeColor(null);
+            case HAIR -> user.setHair(null);
+            case IP -> user.setIp(null);
+            case ADDRESS -> user.setAddress(null);
+            case MAC_ADDRESS -> user.setMacAddress(null);
+            case UNIVERSITY -> user.setUniversity(null);
+            case BANK -> user.setBank(null);
+            case COMPANY -> user.setCompany(null);
+            case EIN -> user.setEin(null);
+            case SSN -> user.setSsn(null);
+            case USER_AGENT -> user.setUserAgent(null);
+            case CRYPTO -> user.setCrypto(null);
+            case ROLE -> user.setRole(null);
+        }
+    }
+
+    private static Integer intOrNull(JsonParser parser) throws IOException {
+        return parser.currentToken().isNumeric() ? parser.getIntValue() : null;
+    }
+
+    private static Double doubleOrNull(JsonParser parser) throws IOException {
+        return parser.currentToken().isNumeric() ? parser.getDoubleValue() : null;
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        void read(JsonParser parser, User user) throws IOException;
+    }
+
+    // Enum constants cannot reference the enum's own static fields in their initializers
+    private static final class Types {
+        static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {
+        };
+        static final TypeReference<Map<String, Object>> OBJECT_MAP = new TypeReference<>() {
+        };
+    }
+}
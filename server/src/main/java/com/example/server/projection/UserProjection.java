@@ -0,0 +1,94 @@
+package com.example.server.projection;
+
+import com.example.server.model.User;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The user fields a tool call asked for, parsed from a comma-separated list such as
+ * {@code "firstName,lastName,email"}. The id is always included.
+ */
+public final class UserProjection {
+
+    public static final UserProjection ALL = new UserProjection(EnumSet.allOf(UserField.class), "");
+
+    private final Set<UserField> fields;
+    private final String select;
+
+    private UserProjection(Set<UserField> fields, String select) {
+        this.fields = fields;
+        this.select = select;
+    }
+
+    /**
+     * @param fields comma-separated upstream property names; {@code null} or blank selects every field
+     * @throws IllegalArgumentException if a name is not a {@code User} property
+     */
+    public static UserProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<UserField> selected = EnumSet.of(UserField.ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            UserField field = UserField.forJsonName(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown user field '" + trimmed + "', expected any of "
+                        + Stream.of(UserField.values()).map(UserField::jsonName).collect(Collectors.joining(",")));
+            }
+            selected.add(field);
+        }
+        if (selected.size() == UserField.values().length) {
+            return ALL;
+        }
+        StringJoiner select = new StringJoiner(",");
+        for (UserField field : selected) {
+            select.add(field.jsonName());
+        }
+        return new UserProjection(selected, select.toString());
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public boolean includes(UserField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Applies the projection to a user held locally, clearing the fields it leaves out.
+     *
+     * @return the same user
+     */
+    public User apply(User user) {
+        if (!isAll()) {
+            for (UserField field : UserField.values()) {
+                if (!fields.contains(field)) {
+                    field.clear(user);
+                }
+            }
+        }
+        return user;
+    }
+
+    /**
+     * @return the value for dummyjson's {@code select=} parameter, empty when every field is selected;
+     * also a stable key for the projection
+     */
+    public String select() {
+        return select;
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "*" : select;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.server.projection;
+
+import com.example.server.model.User;
+import com.example.server.model.UsersResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a {@code /users} response into a {@link UsersResponse}, setting only the projected user fields.
+ * Unrequested values, nested objects included, are skipped in the token stream and never materialized.
+ */
+public class UsersResponseReader {
+
+    private final ObjectMapper objectMapper;
+
+    public UsersResponseReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public UsersResponse read(byte[] body, UserProjection projection) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a users response object, got " + parser.currentToken());
+            }
+            UsersResponse response = new UsersResponse();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "users" -> response.setUsers(readUsers(parser, projection));
+                    case "total" -> response.setTotal(parser.getValueAsInt());
+                    case "skip" -> response.setSkip(parser.getValueAsInt());
+                    case "limit" -> response.setLimit(parser.getValueAsInt());
+                    default -> parser.skipChildren();
+                }
+            }
+            return response;
+        }
+    }
+
+    private static List<User> readUsers(JsonParser parser, UserProjection projection) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<User> users = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                users.add(readUser(parser, projection));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return users;
+    }
+
+    private static User readUser(JsonParser parser, UserProjection projection) throws IOException {
+        User user = new User();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            UserField field = UserField.forJsonName(parser.currentName());
+            parser.nextToken();
+            if (field != null && projection.includes(field)) {
+                field.read(parser, user);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return user;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.server.service;
+
+import com.example.server.cache.IntKeyedLruCache;
+import com.example.server.coalescing.RequestCoalescer;
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.config.BatchProperties;
+import com.example.server.context.ContextPropagationManager;
+import com.example.server.context.ContextType;
+import com.example.server.context.LazyContext;
+import com.example.server.context.RequiresContext;
+import com.example.server.journal.InvocationJournal;
+import com.example.server.journal.InvocationOutcome;
+import com.example.server.metrics.ToolMetrics;
+import com.example.server.mirror.UserMirror;
+import com.example.server.model.User;
+import com.example.server.model.UserLookupResult;
+import com.example.server.model.UsersBatchResponse;
+import com.example.server.model.UsersResponse;
+import com.example.server.projection.UserProjection;
+import com.example.server.upstream.UpstreamEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.example.server.service.UserToolSupport.FIELDS_DESCRIPTION;
+
+/**
+ * The {@link UserService} tools for the ASYNC MCP server: same names, arguments, caching, coalescing and
+ * metrics, but each returns a {@link Mono} and calls the upstream through a non-blocking {@link WebClient},
+ * so no thread waits for an upstream response.
+ * <p>
+ * The request contexts come with the pipeline's Reactor Context (see
+ * {@link com.example.server.transport.AsyncWebMvcSseServerTransportProvider}) and are installed on whichever
+ * thread a tool assembles its pipeline on, then cleared again. The {@link LazyContext} a tool gets is only
+ * valid during that step.
+ */
+@Service
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class AsyncUserService {
+
+    private final WebClient webClient;
+    private final ContextPropagationManager contextPropagationManager;
+    private final RequestCoalescer requestCoalescer;
+    private final UserMirror userMirror;
+    private final UserToolSupport support;
+
+    @Autowired
+    public AsyncUserService(WebClient toolWebClient,
+                            ContextPropagationManager contextPropagationManager,
+                            ContextRestorationService contextRestorationService,
+                            IntKeyedLruCache<CompactUser> userCache,
+                            CompactUserCodec compactUserCodec,
+                            RequestCoalescer requestCoalescer,
+                            UserMirror userMirror,
+                            BatchProperties batchProperties,
+                            InvocationJournal invocationJournal,
+                            ToolMetrics toolMetrics,
+                            ObjectMapper objectMapper,
+                            UpstreamEndpoint upstreamEndpoint) {
+        this.webClient = toolWebClient;
+        this.contextPropagationManager = contextPropagationManager;
+        this.requestCoalescer = requestCoalescer;
+        this.userMirror = userMirror;
+        this.support = new UserToolSupport(AsyncUserService.class, contextRestorationService, userCache,
+                compactUserCodec, requestCoalescer, batchProperties, invocationJournal, toolMetrics, objectMapper,
+                upstreamEndpoint);
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "getAllUsers", description = "Get all users")
+    public Mono<UsersResponse> getAllUsers(int limit, int skip,
+                                           @ToolParam(required = false, description = FIELDS_DESCRIPTION) String fields) {
+        return invoke("getAllUsers", 31 * (31 * limit + skip) + Objects.hashCode(fields), context -> {
+            UserProjection projection = UserProjection.parse(fields);
+            String url = support.usersUrl(limit, skip, projection);
+            return coalesce("getAllUsers", List.of(limit, skip, projection.select()),
+                    () -> getUsers("getAllUsers", url, projection));
+        });
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "getAllUsersDefault", description = "Get all users with default pagination")
+    public Mono<UsersResponse> getAllUsers() {
+        return invoke("getAllUsersDefault", 0, context -> {
+            String url = support.usersUrl();
+            return coalesce("getAllUsersDefault", List.of(),
+                    () -> get("getAllUsersDefault", url, support.reader(UsersResponse.class)));
+        });
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "getUserById", description = "Get a single user by ID")
+    public Mono<User> getUserById(int id) {
+        return invoke("getUserById", id, context -> fetchUser("getUserById", id));
+    }
+
+    // Shared by getUserById and the getUsersByIds lookups, which are not tool invocations of their own;
+    // the upstream and mapping phases are recorded for the calling tool
+    private Mono<User> fetchUser(String tool, int id) {
+        User cached = support.cachedUser(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        String url = support.userUrl(id);
+        return coalesce("getUserById", List.of(id), () -> {
+            long writeVersion = support.writeVersion(id);
+            return get(tool, url, support.reader(User.class))
+                    .doOnNext(user -> support.userFetched(id, user, writeVersion));
+        });
+    }
+
+    /**
+     * Lookups run concurrently, bounded by {@code tools.batch.max-concurrency}; each carries the request
+     * contexts in its Reactor Context, so unlike {@link UserService#getUsersByIds} no executor is involved.
+     */
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "getUsersByIds", description = "Get several users by their IDs in one call. "
+            + "Results keep the requested order and report a failure per ID instead of failing the whole call")
+    public Mono<UsersBatchResponse> getUsersByIds(List<Integer> ids) {
+        return invoke("getUsersByIds", Objects.hashCode(ids), context -> fetchUsersByIds(ids));
+    }
+
+    private Mono<UsersBatchResponse> fetchUsersByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(support.batchResponse(List.of()));
+        }
+        support.checkBatchSize(ids);
+
+        // By index, since ids may contain nulls
+        return Flux.range(0, ids.size())
+                .flatMapSequential(index -> lookupUser(ids.get(index)), support.batchConcurrency())
+                .collectList()
+                .map(support::batchResponse);
+    }
+
+    private Mono<UserLookupResult> lookupUser(Integer id) {
+        if (id == null) {
+            return Mono.just(UserToolSupport.missingId());
+        }
+        return Mono.defer(() -> fetchUser("getUsersByIds", id))
+                .map(user -> UserToolSupport.found(id, user))
+                .defaultIfEmpty(UserToolSupport.notFound(id))
+                .onErrorResume(WebClientResponseException.NotFound.class,
+                        e -> Mono.just(UserToolSupport.notFound(id)))
+                // Logged with the request contexts
+                .onErrorResume(e -> withContext(() -> UserToolSupport.lookupFailed(id, e)));
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "searchUsers", description = "Search for users by query")
+    public Mono<UsersResponse> searchUsers(String query,
+                                           @ToolParam(required = false, description = FIELDS_DESCRIPTION) String fields) {
+        return invoke("searchUsers", 31 * Objects.hashCode(query) + Objects.hashCode(fields), context -> {
+            UserProjection projection = UserProjection.parse(fields);
+            UsersResponse local = userMirror.search(query, projection);
+            if (local != null) {
+                return Mono.just(local);
+            }
+            String url = support.searchUrl(query, projection);
+            return coalesce("searchUsers", Arrays.asList(query, projection.select()),
+                    () -> getUsers("searchUsers", url, projection));
+        });
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "addUser", description = "Add a new user")
+    public Mono<User> addUser(User user) {
+        return invoke("addUser", Objects.hashCode(user), context ->
+                exchange("addUser", HttpMethod.POST, support.addUserUrl(), user, User.class)
+                        .doOnNext(added -> support.userWritten(added.getId(), added)));
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "updateUser", description = "Update a user")
+    public Mono<User> updateUser(int id, Map<String, Object> updates) {
+        return invoke("updateUser", 31 * id + Objects.hashCode(updates), context ->
+                exchange("updateUser", HttpMethod.PUT, support.userUrl(id), updates, User.class)
+                        // Write-through: the response carries the full, updated user
+                        .doOnSuccess(updated -> support.userWritten(id,
+                                updated != null && updated.getId() == id ? updated : null)));
+    }
+
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "deleteUser", description = "Delete a user")
+    public Mono<User> deleteUser(int id) {
+        return invoke("deleteUser", id, context ->
+                exchange("deleteUser", HttpMethod.DELETE, support.userUrl(id), null, User.class)
+                        .doOnSuccess(deleted -> support.userWritten(id, null)));
+    }
+
+    @RequiresContext({ContextType.LOCALE, ContextType.MDC})
+    @Tool(description = "This method provide date and time as per user timezone")
+    Mono<String> getCurrentDateAndTime() {
+        return invoke("getCurrentDateAndTime", 0,
+                context -> Mono.just(LocalDateTime.now().atZone(context.timeZone().toZoneId()).toString()));
+    }
+
+    /**
+     * Restores the tool's declared contexts from the pipeline while the tool assembles its {@link Mono}, and
+     * records the invocation's latency and outcome in the journal and the {@code tools.invocation} timers
+     * once it terminates or is cancelled.
+     */
+    private <T> Mono<T> invoke(String tool, int argsHash, Function<LazyContext, Mono<T>> body) {
+        return Mono.deferContextual(reactorContext -> contextPropagationManager.callWithContext(reactorContext, () -> {
+            long start = System.nanoTime();
+            // The journal gets the ids now; the tool terminates on a thread without the request's contexts
+            Map<String, String> mdc = support.capturedMdc();
+            Mono<T> result;
+            try {
+                result = body.apply(support.restoreFor(tool, start));
+            } catch (RuntimeException e) {
+                result = Mono.error(e);
+            }
+            return result
+                    .doOnSuccess(value -> support.recordInvocation(tool, argsHash, mdc, start,
+                            InvocationOutcome.SUCCESS))
+                    .doOnError(e -> support.recordInvocation(tool, argsHash, mdc, start, InvocationOutcome.of(e)))
+                    // The client went away or the request timed out before the tool terminated
+                    .doOnCancel(() -> support.recordInvocation(tool, argsHash, mdc, start,
+                            InvocationOutcome.CANCELLED));
+        }));
+    }
+
+    // Runs a step after the tool was assembled (e.g. logging on a Netty thread) with the request contexts
+    private <T> Mono<T> withContext(Supplier<T> step) {
+        return Mono.deferContextual(reactorContext ->
+                Mono.justOrEmpty(contextPropagationManager.callWithContext(reactorContext, step)));
+    }
+
+    private <T> Mono<T> coalesce(String tool, List<?> args, Supplier<Mono<T>> call) {
+        return Mono.fromFuture(() -> requestCoalescer.executeAsync(tool, args, () -> call.get().toFuture()));
+    }
+
+    private Mono<UsersResponse> getUsers(String tool, String url, UserProjection projection) {
+        return get(tool, url, support.usersReader(projection));
+    }
+
+    private <T> Mono<T> get(String tool, String url, UserToolSupport.ResponseReader<T> reader) {
+        return map(tool, upstream(tool, webClient.get().uri(url)), reader);
+    }
+
+    private <T> Mono<T> exchange(String tool, HttpMethod method, String url, Object body, Class<T> type) {
+        WebClient.RequestBodySpec request = webClient.method(method).uri(url);
+        WebClient.RequestHeadersSpec<?> spec = body == null
+                ? request
+                : request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        return map(tool, upstream(tool, spec), support.reader(type));
+    }
+
+    private Mono<byte[]> upstream(String tool, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.retrieve()
+                    .bodyToMono(byte[].class)
+                    .doOnSuccess(body -> support.recordUpstream(tool, start, InvocationOutcome.SUCCESS))
+                    .doOnError(e -> support.recordUpstream(tool, start, InvocationOutcome.of(e)))
+                    .doOnCancel(() -> support.recordUpstream(tool, start, InvocationOutcome.CANCELLED));
+        });
+    }
+
+    private <T> Mono<T> map(String tool, Mono<byte[]> body, UserToolSupport.ResponseReader<T> reader) {
+        return body.mapNotNull(bytes -> support.map(tool, bytes, reader));
+    }
+}
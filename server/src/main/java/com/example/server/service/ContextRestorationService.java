@@ -1,8 +1,13 @@
 package com.example.server.service;
 
 import com.example.server.accessors.accessorsImpl.*;
+import com.example.server.config.ContextRestorationProperties;
+import com.example.server.context.CapturedHeaders;
+import com.example.server.context.ContextType;
 import com.example.server.context.CustomContext;
+import com.example.server.context.LazyContext;
 import com.example.server.model.CustomContextParam;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.i18n.LocaleContext;
@@ -11,8 +16,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@Slf4j
 public class ContextRestorationService {
 
     private final HeaderContextAccessor headerContextAccessor;
@@ -20,18 +27,56 @@ public class ContextRestorationService {
     private final MdcAccessor mdcAccessor;
     private final RequestAttributesAccessor requestAttributesAccessor;
     private final LocaleContextAccessor localeContextAccessor;
+    private final boolean lazy;
 
     @Autowired
     public ContextRestorationService(HeaderContextAccessor headerContextAccessor,
                                      CustomContextAccessor customContextAccessor,
                                      MdcAccessor mdcAccessor,
                                      RequestAttributesAccessor requestAttributesAccessor,
-                                     LocaleContextAccessor localeContextAccessor) {
+                                     LocaleContextAccessor localeContextAccessor,
+                                     ContextRestorationProperties properties) {
         this.headerContextAccessor = headerContextAccessor;
         this.customContextAccessor = customContextAccessor;
         this.mdcAccessor = mdcAccessor;
         this.requestAttributesAccessor = requestAttributesAccessor;
         this.localeContextAccessor = localeContextAccessor;
+        this.lazy = properties.getRestoration() == ContextRestorationProperties.Mode.LAZY;
+    }
+
+    /**
+     * Restores the contexts a tool declared and returns a handle that restores anything else on first
+     * access. In eager mode every context is restored up front.
+     *
+     * @param required contexts the tool declared with {@code @RequiresContext}
+     * @return handle for reading contexts and headers in the tool
+     */
+    public LazyContext restoreFor(Set<ContextType> required) {
+        LazyContext context = new LazyContext(this);
+        if (lazy) {
+            for (ContextType type : required) {
+                context.require(type);
+            }
+        } else {
+            for (ContextType type : ContextType.values()) {
+                context.require(type);
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Restores a single ThreadLocal context
+     *
+     * @param type the context to restore
+     */
+    public void restore(ContextType type) {
+        switch (type) {
+            case CUSTOM_CONTEXT -> restoreCustomContext();
+            case MDC -> restoreMDCContext();
+            case REQUEST_ATTRIBUTES -> restoreRequestAttributes();
+            case LOCALE -> restoreLocaleContext();
+        }
     }
 
     /**
@@ -57,20 +102,23 @@ public class ContextRestorationService {
         restoreLocaleContext();
     }
 
+    /**
+     * Gets the request's captured MDC without installing it on the current thread
+     *
+     * @return the captured MDC values, or an empty map when none were captured
+     */
+    public Map<String, String> capturedMdc() {
+        Map<String, String> mdcContext = mdcAccessor.getValue();
+        return mdcContext != null ? mdcContext : Map.of();
+    }
+
     /**
      * Gets HTTP headers without restoring other contexts
      *
-     * @return HttpHeaders populated with request headers
+     * @return read-only HttpHeaders with the captured request headers, shared for the whole request
      */
     public HttpHeaders getHttpHeaders() {
-        Map<String, String> headers = headerContextAccessor.getValue();
-        System.out.println("Headers in Tool: " + headers);
-
-        HttpHeaders httpHeaders = new HttpHeaders();
-        if (headers != null) {
-            headers.forEach(httpHeaders::add);
-        }
-        return httpHeaders;
+        return CapturedHeaders.of(headerContextAccessor.getValue()).toHttpHeaders();
     }
 
     // Restoring Custom Thread Local in Tools
@@ -78,17 +126,15 @@ public class ContextRestorationService {
         Map<CustomContextParam, Object> customContext = customContextAccessor.getValue();
         if (!CustomContext.isInitialized() && customContext != null) {
             try {
-                CustomContext.setContextHolderMap(customContext); // Removed as method is undefined
-                System.out.println("CustomContext would be restored here if supported");
+                CustomContext.setContextHolderMap(customContext);
             } catch (Exception e) {
-                System.err.println("Failed to restore CustomContext: " + e.getMessage());
+                log.warn("Failed to restore CustomContext: {}", e.getMessage());
             }
         }
     }
 
     private void restoreMDCContext() {
         Map<String, String> mdcContext = mdcAccessor.getValue();
-        System.out.println("MDC context available: " + (mdcContext != null && !mdcContext.isEmpty()));
         if (mdcContext != null) {
             MDC.setContextMap(mdcContext);
         }
@@ -96,27 +142,22 @@ public class ContextRestorationService {
 
     private void restoreRequestAttributes() {
         org.springframework.web.context.request.RequestAttributes requestAttributes = requestAttributesAccessor.getValue();
-        System.out.println("RequestAttributes available: " + (requestAttributes != null));
         if (requestAttributes != null) {
             try {
                 org.springframework.web.context.request.RequestContextHolder.setRequestAttributes(requestAttributes);
-                System.out.println("RequestAttributes restored successfully");
             } catch (Exception e) {
-                System.err.println("Failed to restore RequestAttributes: " + e.getMessage());
+                log.warn("Failed to restore RequestAttributes: {}", e.getMessage());
             }
         }
     }
 
     private void restoreLocaleContext() {
         LocaleContext localeContext = localeContextAccessor.getValue();
-        System.out.println("LocaleContext available: " + (localeContext != null));
-
         if (localeContext != null) {
             try {
                 LocaleContextHolder.setLocaleContext(localeContext);
-                System.out.println("LocaleContext restored successfully");
             } catch (Exception e) {
-                System.err.println("Failed to restore LocaleContext: " + e.getMessage());
+                log.warn("Failed to restore LocaleContext: {}", e.getMessage());
             }
         }
     }
@@ -1,57 +1,102 @@
 package com.example.server.service;
 
 
-import com.example.server.context.CustomContext;
-import com.example.server.model.ContextParamDefault;
+import com.example.server.cache.IntKeyedLruCache;
+import com.example.server.coalescing.RequestCoalescer;
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.context.ContextType;
+import com.example.server.context.LazyContext;
+import com.example.server.context.RequiresContext;
+import com.example.server.config.BatchProperties;
+import com.example.server.journal.InvocationJournal;
+import com.example.server.journal.InvocationOutcome;
+import com.example.server.metrics.ToolMetrics;
+import com.example.server.mirror.UserMirror;
 import com.example.server.model.User;
+import com.example.server.model.UserLookupResult;
+import com.example.server.model.UsersBatchResponse;
 import com.example.server.model.UsersResponse;
+import com.example.server.projection.UserProjection;
+import com.example.server.upstream.UpstreamEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.example.server.service.UserToolSupport.FIELDS_DESCRIPTION;
 
 @Service
 @Slf4j
 public class UserService {
 
     private final RestTemplate restTemplate;
-    private final ContextRestorationService contextRestorationService;
-    private final String BASE_URL = "https://dummyjson.com";
+    private final RequestCoalescer requestCoalescer;
+    private final UserMirror userMirror;
+    private final Executor taskExecutor;
+    private final UserToolSupport support;
 
     @Autowired
-    public UserService(RestTemplateBuilder restTemplateBuilder, ContextRestorationService contextRestorationService) {
-        this.restTemplate = restTemplateBuilder.build();
-        this.contextRestorationService = contextRestorationService;
+    public UserService(RestTemplate toolRestTemplate,
+                       ContextRestorationService contextRestorationService,
+                       IntKeyedLruCache<CompactUser> userCache,
+                       CompactUserCodec compactUserCodec,
+                       RequestCoalescer requestCoalescer,
+                       UserMirror userMirror,
+                       @Qualifier("taskExecutor") Executor taskExecutor,
+                       BatchProperties batchProperties,
+                       InvocationJournal invocationJournal,
+                       ToolMetrics toolMetrics,
+                       ObjectMapper objectMapper,
+                       UpstreamEndpoint upstreamEndpoint) {
+        this.restTemplate = toolRestTemplate;
+        this.requestCoalescer = requestCoalescer;
+        this.userMirror = userMirror;
+        this.taskExecutor = taskExecutor;
+        this.support = new UserToolSupport(UserService.class, contextRestorationService, userCache,
+                compactUserCodec, requestCoalescer, batchProperties, invocationJournal, toolMetrics, objectMapper,
+                upstreamEndpoint);
     }
 
     /**
      * Get all users with pagination
      *
-     * @param limit Maximum number of users to return
-     * @param skip  Number of users to skip for pagination
+     * @param limit  Maximum number of users to return
+     * @param skip   Number of users to skip for pagination
+     * @param fields Optional comma-separated user fields to return; all fields when omitted
      * @return List of users wrapped in a response object
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "getAllUsers", description = "Get all users")
-    public UsersResponse getAllUsers(int limit, int skip) {
-
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users?limit=" + limit + "&skip=" + skip;
-        return restTemplate.getForObject(url, UsersResponse.class);
+    public UsersResponse getAllUsers(int limit, int skip,
+                                     @ToolParam(required = false, description = FIELDS_DESCRIPTION) String fields) {
+        return invoke("getAllUsers", 31 * (31 * limit + skip) + Objects.hashCode(fields), context -> {
+            UserProjection projection = UserProjection.parse(fields);
+            String url = support.usersUrl(limit, skip, projection);
+            return requestCoalescer.execute("getAllUsers", List.of(limit, skip, projection.select()),
+                    () -> getUsers("getAllUsers", url, projection));
+        });
     }
 
     /**
@@ -59,16 +104,14 @@ public class UserService {
      *
      * @return List of users wrapped in a response object
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "getAllUsersDefault", description = "Get all users with default pagination")
     public UsersResponse getAllUsers() {
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users";
-        return restTemplate.getForObject(url, UsersResponse.class);
+        return invoke("getAllUsersDefault", 0, context -> {
+            String url = support.usersUrl();
+            return requestCoalescer.execute("getAllUsersDefault", List.of(),
+                    () -> get("getAllUsersDefault", url, support.reader(UsersResponse.class)));
+        });
     }
 
     /**
@@ -77,34 +120,109 @@ public class UserService {
      * @param id The user ID
      * @return User object
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "getUserById", description = "Get a single user by ID")
     public User getUserById(int id) {
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.getObject(ContextParamDefault.X_TRAFFIC_TYPE));
+        return invoke("getUserById", id, context -> fetchUser("getUserById", id));
+    }
 
-        String url = BASE_URL + "/users/" + id;
-        return restTemplate.getForObject(url, User.class);
+    // Shared by getUserById and the getUsersByIds lookups, which are not tool invocations of their own;
+    // the upstream and mapping phases are recorded for the calling tool
+    private User fetchUser(String tool, int id) {
+        User cached = support.cachedUser(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        String url = support.userUrl(id);
+        return requestCoalescer.execute("getUserById", List.of(id), () -> {
+            long writeVersion = support.writeVersion(id);
+            User user = get(tool, url, support.reader(User.class));
+            support.userFetched(id, user, writeVersion);
+            return user;
+        });
+    }
+
+    /**
+     * Get several users by ID in one call. Lookups run concurrently on the context-propagating
+     * task executor, bounded by {@code tools.batch.max-concurrency}.
+     *
+     * @param ids The user IDs
+     * @return One result per requested ID, in request order, each holding either the user or an error
+     */
+    @RequiresContext(ContextType.MDC)
+    @Tool(name = "getUsersByIds", description = "Get several users by their IDs in one call. "
+            + "Results keep the requested order and report a failure per ID instead of failing the whole call")
+    public UsersBatchResponse getUsersByIds(List<Integer> ids) {
+        // Lookups get the request contexts from the task decorator, which reads the accessors directly
+        return invoke("getUsersByIds", Objects.hashCode(ids), context -> fetchUsersByIds(ids));
+    }
+
+    private UsersBatchResponse fetchUsersByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return support.batchResponse(List.of());
+        }
+        support.checkBatchSize(ids);
+
+        UserLookupResult[] results = new UserLookupResult[ids.size()];
+        AtomicInteger cursor = new AtomicInteger();
+        Runnable worker = () -> {
+            int index;
+            while ((index = cursor.getAndIncrement()) < results.length) {
+                results[index] = lookupUser(ids.get(index));
+            }
+        };
+
+        // A fixed number of workers drain the id list, which caps the fan-out without a semaphore
+        int workers = Math.min(support.batchConcurrency(), ids.size());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            try {
+                futures[i] = CompletableFuture.runAsync(worker, taskExecutor);
+            } catch (RejectedExecutionException e) {
+                log.warn("Task executor saturated, continuing getUsersByIds on the calling thread");
+                worker.run();
+                futures[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        CompletableFuture.allOf(futures).join();
+        return support.batchResponse(Arrays.asList(results));
+    }
+
+    private UserLookupResult lookupUser(Integer id) {
+        if (id == null) {
+            return UserToolSupport.missingId();
+        }
+        try {
+            return UserToolSupport.found(id, fetchUser("getUsersByIds", id));
+        } catch (HttpClientErrorException.NotFound e) {
+            return UserToolSupport.notFound(id);
+        } catch (RuntimeException e) {
+            return UserToolSupport.lookupFailed(id, e);
+        }
     }
 
     /**
      * Search for users by query
      *
-     * @param query The search query
+     * @param query  The search query
+     * @param fields Optional comma-separated user fields to return; all fields when omitted
      * @return List of users that match the query
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "searchUsers", description = "Search for users by query")
-    public UsersResponse searchUsers(String query) {
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users/search?q=" + query;
-        return restTemplate.getForObject(url, UsersResponse.class);
+    public UsersResponse searchUsers(String query,
+                                     @ToolParam(required = false, description = FIELDS_DESCRIPTION) String fields) {
+        return invoke("searchUsers", 31 * Objects.hashCode(query) + Objects.hashCode(fields), context -> {
+            UserProjection projection = UserProjection.parse(fields);
+            UsersResponse local = userMirror.search(query, projection);
+            if (local != null) {
+                return local;
+            }
+            String url = support.searchUrl(query, projection);
+            return requestCoalescer.execute("searchUsers", Arrays.asList(query, projection.select()),
+                    () -> getUsers("searchUsers", url, projection));
+        });
     }
 
     /**
@@ -113,22 +231,22 @@ public class UserService {
      * @param user The user to add
      * @return The added user with ID
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "addUser", description = "Add a new user")
     public User addUser(User user) {
-
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users/add";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<User> request = new HttpEntity<>(user, headers);
-
-        return restTemplate.postForObject(url, request, User.class);
+        return invoke("addUser", Objects.hashCode(user), context -> {
+            String url = support.addUserUrl();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<User> request = new HttpEntity<>(user, headers);
+
+            User added = exchange("addUser", url, HttpMethod.POST, request, User.class);
+            if (added != null) {
+                support.userWritten(added.getId(), added);
+            }
+            return added;
+        });
     }
 
     /**
@@ -138,22 +256,21 @@ public class UserService {
      * @param updates A map of fields to update
      * @return The updated user
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "updateUser", description = "Update a user")
     public User updateUser(int id, Map<String, Object> updates) {
-
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users/" + id;
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(updates, headers);
-
-        return restTemplate.exchange(url, HttpMethod.PUT, request, User.class).getBody();
+        return invoke("updateUser", 31 * id + Objects.hashCode(updates), context -> {
+            String url = support.userUrl(id);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            HttpEntity<Map<String, Object>> request = new HttpEntity<>(updates, headers);
+
+            User updated = exchange("updateUser", url, HttpMethod.PUT, request, User.class);
+            // Write-through: the response carries the full, updated user
+            support.userWritten(id, updated != null && updated.getId() == id ? updated : null);
+            return updated;
+        });
     }
 
     /**
@@ -162,24 +279,68 @@ public class UserService {
      * @param id The ID of the user to delete
      * @return The deleted user with isDeleted flag
      */
+    @RequiresContext(ContextType.MDC)
     @Tool(name = "deleteUser", description = "Delete a user")
     public User deleteUser(int id) {
+        return invoke("deleteUser", id, context -> {
+            String url = support.userUrl(id);
 
-        // Single line to restore all contexts and get headers
-        HttpHeaders httpHeaders = contextRestorationService.restoreAllContextsAndGetHeaders();
-        System.out.println("Headers in Tool: " + httpHeaders);
-        System.out.println("CustomContext in Tool: "
-                + CustomContext.get(ContextParamDefault.X_TRAFFIC_TYPE));
-
-        String url = BASE_URL + "/users/" + id;
-
-        return restTemplate.exchange(url, HttpMethod.DELETE, null, User.class).getBody();
+            User deleted = exchange("deleteUser", url, HttpMethod.DELETE, null, User.class);
+            support.userWritten(id, null);
+            return deleted;
+        });
     }
 
 
+    @RequiresContext({ContextType.LOCALE, ContextType.MDC})
     @Tool(description = "This method provide date and time as per user timezone")
     String getCurrentDateAndTime() {
-        return LocalDateTime.now().atZone(LocaleContextHolder.getTimeZone().toZoneId()).toString();
+        return invoke("getCurrentDateAndTime", 0,
+                context -> LocalDateTime.now().atZone(context.timeZone().toZoneId()).toString());
+    }
+
+    /**
+     * Restores the tool's declared contexts, runs it, and records the invocation's latency and outcome in
+     * the journal and the {@code tools.invocation} timers.
+     */
+    private <T> T invoke(String tool, int argsHash, Function<LazyContext, T> body) {
+        long start = System.nanoTime();
+        Map<String, String> mdc = support.capturedMdc();
+        InvocationOutcome outcome = InvocationOutcome.SUCCESS;
+        try {
+            return body.apply(support.restoreFor(tool, start));
+        } catch (RuntimeException e) {
+            outcome = InvocationOutcome.of(e);
+            throw e;
+        } finally {
+            support.recordInvocation(tool, argsHash, mdc, start, outcome);
+        }
+    }
+
+    private UsersResponse getUsers(String tool, String url, UserProjection projection) {
+        return get(tool, url, support.usersReader(projection));
+    }
+
+    private <T> T get(String tool, String url, UserToolSupport.ResponseReader<T> reader) {
+        return support.map(tool, upstream(tool, () -> restTemplate.getForObject(url, byte[].class)), reader);
+    }
+
+    private <T> T exchange(String tool, String url, HttpMethod method, HttpEntity<?> request, Class<T> type) {
+        byte[] body = upstream(tool, () -> restTemplate.exchange(url, method, request, byte[].class).getBody());
+        return support.map(tool, body, support.reader(type));
+    }
+
+    private byte[] upstream(String tool, Supplier<byte[]> call) {
+        long start = System.nanoTime();
+        InvocationOutcome outcome = InvocationOutcome.SUCCESS;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = InvocationOutcome.of(e);
+            throw e;
+        } finally {
+            support.recordUpstream(tool, start, outcome);
+        }
     }
 
-}
\ No newline at end of file
+}
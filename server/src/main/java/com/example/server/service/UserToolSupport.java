@@ -0,0 +1,232 @@
+package com.example.server.service;
+
+import com.example.server.cache.IntKeyedLruCache;
+import com.example.server.coalescing.RequestCoalescer;
+import com.example.server.compact.CompactUser;
+import com.example.server.compact.CompactUserCodec;
+import com.example.server.config.BatchProperties;
+import com.example.server.context.LazyContext;
+import com.example.server.context.ToolContextRequirements;
+import com.example.server.journal.InvocationJournal;
+import com.example.server.journal.InvocationOutcome;
+import com.example.server.metrics.ToolMetrics;
+import com.example.server.model.ContextParamDefault;
+import com.example.server.model.User;
+import com.example.server.model.UserLookupResult;
+import com.example.server.model.UsersBatchResponse;
+import com.example.server.model.UsersResponse;
+import com.example.server.projection.UserProjection;
+import com.example.server.projection.UsersResponseReader;
+import com.example.server.upstream.UpstreamEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@link UserService} and {@link AsyncUserService} do around their upstream calls: upstream URLs, the
+ * user cache, batch limits and results, response mapping, and the journal and metrics of an invocation.
+ * The services only differ in how they reach the upstream.
+ */
+@Slf4j
+final class UserToolSupport {
+
+    static final String FIELDS_DESCRIPTION = "Optional comma-separated user fields to return, "
+            + "e.g. firstName,lastName,email. Omit to return every field";
+
+    private final ToolContextRequirements toolContexts;
+    private final ContextRestorationService contextRestorationService;
+    private final IntKeyedLruCache<CompactUser> userCache;
+    private final CompactUserCodec compactUserCodec;
+    private final RequestCoalescer requestCoalescer;
+    private final BatchProperties batchProperties;
+    private final InvocationJournal invocationJournal;
+    private final ToolMetrics toolMetrics;
+    private final ObjectMapper objectMapper;
+    private final UsersResponseReader usersResponseReader;
+    private final String baseUrl;
+
+    UserToolSupport(Class<?> toolClass,
+                    ContextRestorationService contextRestorationService,
+                    IntKeyedLruCache<CompactUser> userCache,
+                    CompactUserCodec compactUserCodec,
+                    RequestCoalescer requestCoalescer,
+                    BatchProperties batchProperties,
+                    InvocationJournal invocationJournal,
+                    ToolMetrics toolMetrics,
+                    ObjectMapper objectMapper,
+                    UpstreamEndpoint upstreamEndpoint) {
+        this.toolContexts = ToolContextRequirements.of(toolClass);
+        this.contextRestorationService = contextRestorationService;
+        this.userCache = userCache;
+        this.compactUserCodec = compactUserCodec;
+        this.requestCoalescer = requestCoalescer;
+        this.batchProperties = batchProperties;
+        this.invocationJournal = invocationJournal;
+        this.toolMetrics = toolMetrics;
+        this.objectMapper = objectMapper;
+        this.usersResponseReader = new UsersResponseReader(objectMapper);
+        this.baseUrl = upstreamEndpoint.baseUrl();
+    }
+
+    String usersUrl(int limit, int skip, UserProjection projection) {
+        return withSelect(baseUrl + "/users?limit=" + limit + "&skip=" + skip, projection);
+    }
+
+    String usersUrl() {
+        return baseUrl + "/users";
+    }
+
+    String userUrl(int id) {
+        return baseUrl + "/users/" + id;
+    }
+
+    String addUserUrl() {
+        return baseUrl + "/users/add";
+    }
+
+    String searchUrl(String query, UserProjection projection) {
+        return withSelect(baseUrl + "/users/search?q=" + query, projection);
+    }
+
+    private static String withSelect(String url, UserProjection projection) {
+        return projection.isAll() ? url : url + "&select=" + projection.select();
+    }
+
+    User cachedUser(int id) {
+        CompactUser cached = userCache.get(id);
+        return cached == null ? null : compactUserCodec.decode(cached);
+    }
+
+    // Taken before the upstream call, so a write racing the lookup keeps its result out of the cache
+    long writeVersion(int id) {
+        return userCache.writeVersion(id);
+    }
+
+    void userFetched(int id, User user, long writeVersion) {
+        userCache.fill(id, compactUserCodec.encode(user), writeVersion);
+    }
+
+    /**
+     * Caches the user as a write left it, or drops the cached one when that is unknown. A lookup in flight
+     * may have read the user before the write: its result is not cached, and later lookups no longer share it.
+     */
+    void userWritten(int id, User current) {
+        if (current != null) {
+            userCache.put(id, compactUserCodec.encode(current));
+        } else {
+            userCache.invalidate(id);
+        }
+        requestCoalescer.forget("getUserById", List.of(id));
+    }
+
+    void checkBatchSize(List<Integer> ids) {
+        if (ids.size() > batchProperties.getMaxIds()) {
+            throw new IllegalArgumentException("At most " + batchProperties.getMaxIds()
+                    + " ids can be requested at once, got " + ids.size());
+        }
+    }
+
+    int batchConcurrency() {
+        return Math.max(1, batchProperties.getMaxConcurrency());
+    }
+
+    UsersBatchResponse batchResponse(List<UserLookupResult> results) {
+        int found = 0;
+        for (UserLookupResult result : results) {
+            if (result.getUser() != null) {
+                found++;
+            }
+        }
+        return new UsersBatchResponse(results, found, results.size() - found);
+    }
+
+    static UserLookupResult missingId() {
+        return new UserLookupResult(null, null, "id is required");
+    }
+
+    static UserLookupResult found(int id, User user) {
+        return user != null ? new UserLookupResult(id, user, null) : notFound(id);
+    }
+
+    static UserLookupResult notFound(int id) {
+        return new UserLookupResult(id, null, "User not found");
+    }
+
+    static UserLookupResult lookupFailed(int id, Throwable failure) {
+        log.warn("getUsersByIds lookup failed for id {}: {}", id, failure.getMessage());
+        return new UserLookupResult(id, null, failure.getMessage());
+    }
+
+    /**
+     * Restores the tool's declared contexts and records how long that took.
+     */
+    LazyContext restoreFor(String tool, long start) {
+        LazyContext context = contextRestorationService.restoreFor(toolContexts.forTool(tool));
+        toolMetrics.recordPhase(tool, ToolMetrics.Phase.CONTEXT_RESTORE, System.nanoTime() - start,
+                InvocationOutcome.SUCCESS);
+        if (log.isDebugEnabled()) {
+            log.debug("Tool {} invoked, traffic type: {}", tool, context.customValue(ContextParamDefault.X_TRAFFIC_TYPE));
+        }
+        return context;
+    }
+
+    // Read on the request's thread: the invocation may terminate on one without the request's contexts
+    Map<String, String> capturedMdc() {
+        return contextRestorationService.capturedMdc();
+    }
+
+    /**
+     * Records the invocation's latency and outcome in the journal and the {@code tools.invocation} timers.
+     */
+    void recordInvocation(String tool, int argsHash, Map<String, String> mdc, long start,
+                          InvocationOutcome outcome) {
+        long latency = System.nanoTime() - start;
+        invocationJournal.record(tool, argsHash, mdc.get(ContextParamDefault.REQUEST_ID.getParamKey()),
+                mdc.get(ContextParamDefault.CORRELATION_ID.getParamKey()), latency, outcome);
+        toolMetrics.recordInvocation(tool, latency, outcome);
+    }
+
+    void recordUpstream(String tool, long start, InvocationOutcome outcome) {
+        toolMetrics.recordPhase(tool, ToolMetrics.Phase.UPSTREAM, System.nanoTime() - start, outcome);
+    }
+
+    // Projected responses are streamed so unrequested fields are skipped rather than deserialized
+    ResponseReader<UsersResponse> usersReader(UserProjection projection) {
+        return projection.isAll()
+                ? reader(UsersResponse.class)
+                : body -> usersResponseReader.read(body, projection);
+    }
+
+    <T> ResponseReader<T> reader(Class<T> type) {
+        return body -> objectMapper.readValue(body, type);
+    }
+
+    /**
+     * Maps an upstream body, read as raw bytes so the HTTP round trip and the JSON mapping are timed
+     * separately. An empty body maps to {@code null}.
+     */
+    <T> T map(String tool, byte[] body, ResponseReader<T> reader) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        InvocationOutcome outcome = InvocationOutcome.SUCCESS;
+        try {
+            return reader.read(body);
+        } catch (IOException e) {
+            outcome = InvocationOutcome.ERROR;
+            throw new RestClientException("Error while extracting upstream response for tool " + tool, e);
+        } finally {
+            toolMetrics.recordPhase(tool, ToolMetrics.Phase.MAPPING, System.nanoTime() - start, outcome);
+        }
+    }
+
+    @FunctionalInterface
+    interface ResponseReader<T> {
+        T read(byte[] body) throws IOException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.server.tools;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.ai.util.json.JsonParser;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP tool specifications for the {@code @Tool} methods of an object whose tools return a {@link Mono}.
+ * <p>
+ * Spring AI only turns tools returning plain values into MCP tools (and runs them on a blocking scheduler
+ * for the ASYNC server). The specifications built here look the same to a client: name, description and
+ * input schema come from Spring AI's {@link ToolDefinition}, arguments are converted the way its method
+ * tools convert them, and the result is returned as JSON text, or the failure's message with the error flag.
+ */
+public final class AsyncToolSpecifications {
+
+    private static final ToolCallResultConverter RESULT_CONVERTER = new DefaultToolCallResultConverter();
+
+    private AsyncToolSpecifications() {
+    }
+
+    public static List<McpServerFeatures.AsyncToolSpecification> from(Object toolObject) {
+        List<McpServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(toolObject), method -> {
+            ToolDefinition definition = ToolDefinition.from(method);
+            if (!Mono.class.equals(method.getReturnType())) {
+                throw new IllegalArgumentException("Tool " + definition.name() + " must return a Mono");
+            }
+            Type resultType = ResolvableType.forMethodReturnType(method).getGeneric(0).getType();
+            ReflectionUtils.makeAccessible(method);
+            McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(),
+                    definition.inputSchema());
+            specifications.add(new McpServerFeatures.AsyncToolSpecification(tool,
+                    (exchange, arguments) -> call(toolObject, method, arguments, resultType)));
+        }, method -> method.isAnnotationPresent(Tool.class));
+        return List.copyOf(specifications);
+    }
+
+    private static Mono<McpSchema.CallToolResult> call(Object toolObject, Method method,
+                                                        Map<String, Object> arguments, Type resultType) {
+        return Mono.defer(() -> (Mono<?>) ReflectionUtils.invokeMethod(method, toolObject,
+                        arguments(method, arguments)))
+                .map(result -> RESULT_CONVERTER.convert(result, resultType))
+                .switchIfEmpty(Mono.fromSupplier(() -> RESULT_CONVERTER.convert(null, resultType)))
+                .map(json -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(json)), false))
+                .onErrorResume(e -> Mono.just(
+                        new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(e.getMessage())), true)));
+    }
+
+    private static Object[] arguments(Method method, Map<String, Object> arguments) {
+        Parameter[] parameters = method.getParameters();
+        Object[] values = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Object raw = arguments == null ? null : arguments.get(parameters[i].getName());
+            values[i] = raw == null ? null : JsonParser.toTypedObject(raw, parameters[i].getType());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.server.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import jakarta.servlet.ServletException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * MCP over SSE on WebMVC for the ASYNC server: the endpoints and events of the SDK's
+ * {@link io.modelcontextprotocol.server.transport.WebMvcSseServerTransportProvider}, but a message POST is
+ * answered asynchronously.
+ * <p>
+ * The SDK's handler blocks the servlet thread until the session has handled the message, i.e. until the tool
+ * has finished, so every tool call in flight holds a container thread even when the tool itself does not
+ * block. Here the handling {@link Mono} is returned as an async response and the thread goes back to the
+ * container. The request's contexts are captured on the servlet thread when the message arrives and travel
+ * with the handling pipeline in its Reactor {@link Context}. Messages to a session are written one at a time,
+ * as {@link SerializedSendTransportProvider} does for the SDK transport.
+ */
+@Slf4j
+public class AsyncWebMvcSseServerTransportProvider implements McpServerTransportProvider {
+
+    private static final String MESSAGE_EVENT_TYPE = "message";
+    private static final String ENDPOINT_EVENT_TYPE = "endpoint";
+
+    private final ObjectMapper objectMapper;
+    private final String messageEndpoint;
+    private final Function<Context, Context> contextCapture;
+    private final RouterFunction<ServerResponse> routerFunction;
+    private final ConcurrentHashMap<String, McpServerSession> sessions = new ConcurrentHashMap<>();
+    private McpServerSession.Factory sessionFactory;
+    private volatile boolean closing;
+
+    /**
+     * @param contextCapture adds the contexts of the current (servlet) thread to the Reactor Context a message
+     *                       is handled with
+     */
+    public AsyncWebMvcSseServerTransportProvider(ObjectMapper objectMapper, String messageEndpoint,
+                                                 String sseEndpoint, Function<Context, Context> contextCapture) {
+        this.objectMapper = objectMapper;
+        this.messageEndpoint = messageEndpoint;
+        this.contextCapture = contextCapture;
+        this.routerFunction = RouterFunctions.route()
+                .GET(sseEndpoint, this::handleSseConnection)
+                .POST(messageEndpoint, this::handleMessage)
+                .build();
+    }
+
+    public RouterFunction<ServerResponse> getRouterFunction() {
+        return routerFunction;
+    }
+
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        return Flux.fromIterable(sessions.values())
+                .flatMap(session -> session.sendNotification(method, params)
+                        .doOnError(e -> log.error("Failed to send notification to session {}: {}",
+                                session.getId(), e.getMessage()))
+                        .onErrorComplete())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        closing = true;
+        return Flux.fromIterable(sessions.values())
+                .flatMap(McpServerSession::closeGracefully)
+                .then();
+    }
+
+    private ServerResponse handleSseConnection(ServerRequest request) {
+        if (closing) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is shutting down");
+        }
+        String sessionId = UUID.randomUUID().toString();
+        return ServerResponse.sse(sse -> {
+            sse.onComplete(() -> sessions.remove(sessionId));
+            sse.onTimeout(() -> sessions.remove(sessionId));
+            sse.onError(e -> sessions.remove(sessionId));
+            sessions.put(sessionId, sessionFactory.create(new SessionTransport(sessionId, sse)));
+            try {
+                sse.id(sessionId).event(ENDPOINT_EVENT_TYPE).data(messageEndpoint + "?sessionId=" + sessionId);
+            } catch (IOException e) {
+                log.error("Failed to send the endpoint event to session {}: {}", sessionId, e.getMessage());
+                sse.error(e);
+            }
+        }, Duration.ZERO);
+    }
+
+    private ServerResponse handleMessage(ServerRequest request) {
+        if (closing) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).body("Server is shutting down");
+        }
+        String sessionId = request.param("sessionId").orElse(null);
+        if (sessionId == null) {
+            return ServerResponse.badRequest().body(new McpError("Session ID missing in message endpoint"));
+        }
+        McpServerSession session = sessions.get(sessionId);
+        if (session == null) {
+            return ServerResponse.status(HttpStatus.NOT_FOUND).body(new McpError("Session not found: " + sessionId));
+        }
+
+        McpSchema.JSONRPCMessage message;
+        try {
+            message = McpSchema.deserializeJsonRpcMessage(objectMapper, request.body(String.class));
+        } catch (IllegalArgumentException | IOException | ServletException e) {
+            log.error("Failed to deserialize message: {}", e.getMessage());
+            return ServerResponse.badRequest().body(new McpError("Invalid message format"));
+        }
+
+        // Captured here, on the thread the interceptor installed the request's contexts on
+        Context context = contextCapture.apply(Context.empty());
+        return ServerResponse.async(session.handle(message)
+                .contextWrite(context)
+                .then(Mono.fromCallable(() -> ServerResponse.ok().build()))
+                .onErrorResume(e -> {
+                    log.error("Error handling message: {}", e.getMessage());
+                    return Mono.just(ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new McpError(e.getMessage())));
+                }));
+    }
+
+    private final class SessionTransport implements McpServerTransport {
+
+        private final String sessionId;
+        private final ServerResponse.SseBuilder sse;
+
+        SessionTransport(String sessionId, ServerResponse.SseBuilder sse) {
+            this.sessionId = sessionId;
+            this.sse = sse;
+        }
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            return Mono.fromRunnable(() -> {
+                try {
+                    String json = objectMapper.writeValueAsString(message);
+                    // An event is written as three calls (id, event, data); keep concurrent responses apart
+                    synchronized (this) {
+                        sse.id(sessionId).event(MESSAGE_EVENT_TYPE).data(json);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to send message to session {}: {}", sessionId, e.getMessage());
+                    sse.error(e);
+                }
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return objectMapper.convertValue(data, typeRef);
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return Mono.fromRunnable(this::close);
+        }
+
+        @Override
+        public void close() {
+            try {
+                sse.complete();
+            } catch (Exception e) {
+                log.warn("Failed to complete the SSE stream of session {}: {}", sessionId, e.getMessage());
+            }
+        }
+    }
+}
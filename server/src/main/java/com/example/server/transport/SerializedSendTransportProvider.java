@@ -0,0 +1,92 @@
+package com.example.server.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Wraps the WebMVC SSE transport provider so the messages of one session are written one at a time.
+ * <p>
+ * The WebMVC transport writes an SSE event as three separate calls (id, event, data) without locking, so
+ * responses to concurrent tool calls on the same session interleave and corrupt the stream for the client.
+ * Each send of a session subscribes to the transport only once the previous send has terminated, so whole
+ * events stay together however the transport completes its writes; waiting sends queue without holding a
+ * thread.
+ */
+public class SerializedSendTransportProvider implements McpServerTransportProvider {
+
+    private final McpServerTransportProvider delegate;
+
+    public SerializedSendTransportProvider(McpServerTransportProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        delegate.setSessionFactory(transport -> sessionFactory.create(new SerializedSendTransport(transport)));
+    }
+
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        // Goes through each session's wrapped transport
+        return delegate.notifyClients(method, params);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        return delegate.closeGracefully();
+    }
+
+    private static final class SerializedSendTransport implements McpServerTransport {
+
+        private final McpServerTransport delegate;
+        // Completes once the most recently queued send has terminated; guarded by this
+        private CompletableFuture<Void> lastSend = CompletableFuture.completedFuture(null);
+
+        SerializedSendTransport(McpServerTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            return Mono.defer(() -> {
+                CompletableFuture<Void> sent = new CompletableFuture<>();
+                CompletableFuture<Void> previous;
+                synchronized (this) {
+                    previous = lastSend;
+                    lastSend = sent;
+                }
+                // A send cancelled while waiting must neither cancel its predecessor nor let its successor
+                // start before the predecessor is written
+                return Mono.fromFuture(previous, true)
+                        .then(Mono.defer(() -> delegate.sendMessage(message)))
+                        .doFinally(signal -> previous.whenComplete((ignored, error) -> sent.complete(null)));
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return delegate.unmarshalFrom(data, typeRef);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return delegate.closeGracefully();
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.server.upstream;
+
+import com.example.server.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the dummyjson users API on the loopback interface.
+ * <p>
+ * Serves {@code GET /users}, {@code GET /users/{id}}, {@code GET /users/search}, {@code POST /users/add},
+ * {@code PUT|PATCH /users/{id}} and {@code DELETE /users/{id}} from a fixed dataset, with dummyjson's
+ * paging ({@code limit}, default 30, {@code 0} for all; {@code skip}) and {@code select=} projection.
+ * Like dummyjson, writes are answered but not applied. Each request first waits for a latency sampled
+ * from its route's {@link LatencyModel}, then fails with the configured status at the configured rate,
+ * so runs measure the server rather than the internet.
+ */
+@Slf4j
+public class FakeUpstream implements AutoCloseable {
+
+    public enum Route {
+        LIST, GET, SEARCH, ADD, UPDATE, DELETE
+    }
+
+    private static final int DEFAULT_LIMIT = 30;
+
+    private final ObjectMapper objectMapper;
+    private final List<User> users;
+    private final byte[][] userJson;
+    private final String[] searchTexts;
+    private final int requestedPort;
+    private final LatencyModel latency;
+    private final Map<Route, LatencyModel> routeLatency;
+    private final double errorRate;
+    private final int errorStatus;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param users        the dataset, with ids {@code 1..n} in order (see {@link FakeUsers})
+     * @param port         loopback port to listen on; {@code 0} picks a free one
+     * @param routeLatency latency overrides by route; others use {@code latency}
+     * @param errorRate    fraction of requests answered with {@code errorStatus}
+     */
+    public FakeUpstream(ObjectMapper objectMapper, List<User> users, int port, LatencyModel latency,
+                        Map<Route, LatencyModel> routeLatency, double errorRate, int errorStatus) {
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+        }
+        this.objectMapper = objectMapper;
+        this.users = List.copyOf(users);
+        this.userJson = new byte[this.users.size()][];
+        this.searchTexts = new String[this.users.size()];
+        for (int i = 0; i < userJson.length; i++) {
+            User user = this.users.get(i);
+            try {
+                userJson[i] = objectMapper.writeValueAsBytes(user);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot serialize user " + user.getId(), e);
+            }
+            searchTexts[i] = searchText(user);
+        }
+        this.requestedPort = port;
+        this.latency = latency;
+        this.routeLatency = routeLatency.isEmpty() ? Map.of() : new EnumMap<>(routeLatency);
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        // Unbounded, so simulated latency never queues requests behind each other
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "fake-upstream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), requestedPort), 0);
+        server.createContext("/users", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("Fake upstream serving {} users at {}", users.size(), baseUrl());
+    }
+
+    /**
+     * @return the URL to use as the upstream base URL, once started
+     */
+    public synchronized String baseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Fake upstream not started");
+        }
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    public long injectedErrorCount() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            String path = exchange.getRequestURI().getRawPath();
+            String method = exchange.getRequestMethod();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            Route route = route(path, method);
+            if (route == null) {
+                respond(exchange, path.matches("/users(/\\w+)?") ? 405 : 404,
+                        message("Route " + method + " " + path + " not found"));
+                return;
+            }
+            simulateLatency(route);
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.increment();
+                respond(exchange, errorStatus, message("Injected upstream error"));
+                return;
+            }
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            switch (route) {
+                case LIST -> respond(exchange, 200, page(allPositions(), query));
+                case SEARCH -> respond(exchange, 200, page(search(query.getOrDefault("q", "")), query));
+                case GET -> withUser(exchange, path, user -> respond(exchange, 200, userJson[user]));
+                case ADD -> {
+                    ObjectNode added = readObject(body);
+                    added.put("id", users.size() + 1);
+                    respond(exchange, 201, objectMapper.writeValueAsBytes(added));
+                }
+                case UPDATE -> withUser(exchange, path, user -> {
+                    ObjectNode updated = readObject(userJson[user]);
+                    updated.setAll(readObject(body));
+                    updated.put("id", users.get(user).getId());
+                    respond(exchange, 200, objectMapper.writeValueAsBytes(updated));
+                });
+                case DELETE -> withUser(exchange, path, user -> {
+                    ObjectNode deleted = readObject(userJson[user]);
+                    deleted.put("isDeleted", true);
+                    deleted.put("deletedOn", Instant.now().toString());
+                    respond(exchange, 200, objectMapper.writeValueAsBytes(deleted));
+                });
+            }
+        }
+    }
+
+    private static Route route(String path, String method) {
+        switch (path) {
+            case "/users", "/users/" -> {
+                return "GET".equals(method) ? Route.LIST : null;
+            }
+            case "/users/search" -> {
+                return "GET".equals(method) ? Route.SEARCH : null;
+            }
+            case "/users/add" -> {
+                return "POST".equals(method) ? Route.ADD : null;
+            }
+            default -> {
+                if (!path.startsWith("/users/") || path.indexOf('/', "/users/".length()) >= 0) {
+                    return null;
+                }
+                return switch (method) {
+                    case "GET" -> Route.GET;
+                    case "PUT", "PATCH" -> Route.UPDATE;
+                    case "DELETE" -> Route.DELETE;
+                    default -> null;
+                };
+            }
+        }
+    }
+
+    private void simulateLatency(Route route) {
+        long nanos = routeLatency.getOrDefault(route, latency).sampleNanos();
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] page(int[] positions, Map<String, String> query) throws IOException {
+        int skip = Math.max(0, intParam(query, "skip", 0));
+        int limit = Math.max(0, intParam(query, "limit", DEFAULT_LIMIT));
+        int from = Math.min(skip, positions.length);
+        int to = limit == 0 ? positions.length : (int) Math.min((long) from + limit, positions.length);
+        Set<String> select = select(query.get("select"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + (to - from) * 1024);
+        out.write("{\"users\":[".getBytes(StandardCharsets.UTF_8));
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                out.write(',');
+            }
+            byte[] json = userJson[positions[i]];
+            if (select == null) {
+                out.write(json);
+            } else {
+                ObjectNode user = readObject(json);
+                user.retain(select);
+                out.write(objectMapper.writeValueAsBytes(user));
+            }
+        }
+        out.write(("],\"total\":" + positions.length + ",\"skip\":" + from + ",\"limit\":" + (to - from) + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private int[] allPositions() {
+        int[] positions = new int[users.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        return positions;
+    }
+
+    private int[] search(String q) {
+        String needle = q.trim().toLowerCase(Locale.ROOT);
+        int[] matches = new int[searchTexts.length];
+        int count = 0;
+        for (int i = 0; i < searchTexts.length; i++) {
+            if (searchTexts[i].contains(needle)) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private void withUser(HttpExchange exchange, String path, UserResponder responder) throws IOException {
+        String id = path.substring("/users/".length());
+        int position = -1;
+        try {
+            position = Integer.parseInt(id) - 1;
+        } catch (NumberFormatException e) {
+            // answered as not found below
+        }
+        if (position < 0 || position >= users.size()) {
+            respond(exchange, 404, message("User with id '" + id + "' not found"));
+            return;
+        }
+        responder.respond(position);
+    }
+
+    private ObjectNode readObject(byte[] json) throws IOException {
+        if (json.length == 0) {
+            return objectMapper.createObjectNode();
+        }
+        return (ObjectNode) objectMapper.readTree(json);
+    }
+
+    private byte[] message(String message) throws IOException {
+        return objectMapper.writeValueAsBytes(Map.of("message", message));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Set<String> select(String select) {
+        if (select == null || select.isBlank()) {
+            return null;
+        }
+        Set<String> fields = new HashSet<>();
+        fields.add("id");
+        for (String field : select.split(",")) {
+            if (!field.isBlank()) {
+                fields.add(field.trim());
+            }
+        }
+        return fields;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        try {
+            return query.containsKey(name) ? Integer.parseInt(query.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    // Same fields the local user mirror searches
+    private static String searchText(User user) {
+        StringBuilder text = new StringBuilder(128);
+        append(text, user.getFirstName());
+        append(text, user.getLastName());
+        append(text, user.getMaidenName());
+        append(text, user.getEmail());
+        append(text, user.getUsername());
+        if (user.getCompany() != null) {
+            append(text, user.getCompany().get("name"));
+            append(text, user.getCompany().get("department"));
+            append(text, user.getCompany().get("title"));
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void append(StringBuilder text, Object value) {
+        if (value instanceof String s && !s.isEmpty()) {
+            text.append(s).append('\u0000');
+        }
+    }
+
+    @FunctionalInterface
+    private interface UserResponder {
+        void respond(int position) throws IOException;
+    }
+}
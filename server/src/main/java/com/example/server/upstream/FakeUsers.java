@@ -0,0 +1,136 @@
+package com.example.server.upstream;
+
+import com.example.server.model.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic users shaped like dummyjson's, with its mix of unique and low-cardinality values. Serves as
+ * the {@link FakeUpstream} dataset and as benchmark fixtures.
+ */
+public final class FakeUsers {
+
+    private static final String[] FIRST_NAMES = {"Emily", "Michael", "Sophia", "James", "Emma", "Olivia", "Alexander", "Ava",
+            "Ethan", "Isabella", "Liam", "Mia", "Noah", "Charlotte", "William", "Amelia", "Benjamin", "Harper", "Lucas", "Evelyn"};
+    private static final String[] LAST_NAMES = {"Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson"};
+    private static final String[] GENDERS = {"female", "male"};
+    private static final String[] BLOOD_GROUPS = {"A+", "A-", "B+", "B-", "AB+", "AB-", "O+", "O-"};
+    private static final String[] EYE_COLORS = {"Green", "Brown", "Blue", "Gray", "Amber", "Hazel", "Violet", "Red"};
+    private static final String[] ROLES = {"admin", "moderator", "user"};
+    private static final String[] HAIR_COLORS = {"Brown", "Black", "Blonde", "Red", "Gray", "White", "Purple", "Green"};
+    private static final String[] HAIR_TYPES = {"Curly", "Straight", "Wavy", "Kinky"};
+    private static final String[] STATES = {"Mississippi", "Wisconsin", "Kansas", "Ohio", "Texas", "Florida", "Nevada", "Utah"};
+    private static final String[] CITIES = {"Phoenix", "San Francisco", "Denver", "Houston", "Seattle", "Chicago", "Austin",
+            "Boston", "Dallas", "Columbus", "Fort Worth", "San Diego"};
+    private static final String[] UNIVERSITIES = {"University of Wisconsin--Madison", "Ohio State University",
+            "Pepperdine University", "Stanford University", "University of Arizona", "Purdue University"};
+    private static final String[] CARD_TYPES = {"Elo", "Visa", "Mastercard", "Amex", "JCB", "Diners Club"};
+    private static final String[] CURRENCIES = {"CNY", "USD", "EUR", "GBP", "JPY", "SEK", "BRL"};
+    private static final String[] DEPARTMENTS = {"Engineering", "Support", "Research and Development", "Human Resources",
+            "Marketing", "Accounting", "Legal", "Services", "Product Management", "Sales"};
+    private static final String[] TITLES = {"Sales Manager", "Support Specialist", "Research Analyst", "Web Developer",
+            "Accountant", "Quality Assurance Engineer", "Product Manager", "Legal Counsel"};
+    private static final String[] COINS = {"Bitcoin", "Ethereum", "Litecoin", "Solana"};
+    private static final String[] USER_AGENTS = {
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/96.0.4664.93 Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Edge/97.0.1072.76 Safari/537.36",
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 14_6 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/14.1.1 Mobile/15E148 Safari/604.1"};
+
+    private FakeUsers() {
+    }
+
+    /**
+     * @return users with ids {@code 1..count}; the same seed always yields the same users
+     */
+    public static List<User> users(int count, long seed) {
+        Random random = new Random(seed);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            users.add(user(i, random));
+        }
+        return users;
+    }
+
+    public static User user(int id, Random random) {
+        String firstName = pick(FIRST_NAMES, random);
+        String lastName = pick(LAST_NAMES, random);
+        String username = (firstName.charAt(0) + lastName + id).toLowerCase();
+        User user = new User();
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setMaidenName(random.nextInt(3) == 0 ? pick(LAST_NAMES, random) : "");
+        user.setAge(18 + random.nextInt(60));
+        user.setGender(pick(GENDERS, random));
+        user.setEmail(username + "@x.dummyjson.com");
+        user.setPhone("+" + (1 + random.nextInt(99)) + " " + (100 + random.nextInt(900)) + "-" + (100 + random.nextInt(900))
+                + "-" + (1000 + random.nextInt(9000)));
+        user.setUsername(username);
+        user.setPassword(Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+        user.setBirthDate((1950 + random.nextInt(55)) + "-" + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28)));
+        user.setImage("https://dummyjson.com/icon/" + username + "/128");
+        user.setBloodGroup(pick(BLOOD_GROUPS, random));
+        user.setHeight(Math.round((150 + random.nextDouble() * 50) * 100) / 100.0);
+        user.setWeight(Math.round((45 + random.nextDouble() * 60) * 100) / 100.0);
+        user.setEyeColor(pick(EYE_COLORS, random));
+        user.setHair(new LinkedHashMap<>(Map.of("color", pick(HAIR_COLORS, random), "type", pick(HAIR_TYPES, random))));
+        user.setIp(random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+        user.setAddress(address(random));
+        user.setMacAddress(String.format("%02x:%02x:%02x:%02x:%02x:%02x", random.nextInt(256), random.nextInt(256),
+                random.nextInt(256), random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+        user.setUniversity(pick(UNIVERSITIES, random));
+
+        Map<String, Object> bank = new LinkedHashMap<>();
+        bank.put("cardExpire", String.format("%02d/%02d", 1 + random.nextInt(12), 24 + random.nextInt(6)));
+        bank.put("cardNumber", Long.toString(1_000_000_000_000_000L + (random.nextLong() & 0xFFFFFFFFFFFFFL)));
+        bank.put("cardType", pick(CARD_TYPES, random));
+        bank.put("currency", pick(CURRENCIES, random));
+        bank.put("iban", Long.toString(random.nextLong() & Long.MAX_VALUE, 36).toUpperCase());
+        user.setBank(bank);
+
+        Map<String, Object> company = new LinkedHashMap<>();
+        company.put("department", pick(DEPARTMENTS, random));
+        company.put("name", pick(LAST_NAMES, random) + ", " + pick(LAST_NAMES, random) + " and " + pick(LAST_NAMES, random));
+        company.put("title", pick(TITLES, random));
+        company.put("address", address(random));
+        user.setCompany(company);
+
+        user.setEin((100 + random.nextInt(900)) + "-" + (100 + random.nextInt(900)));
+        user.setSsn((100 + random.nextInt(900)) + "-" + (100 + random.nextInt(900)) + "-" + (100 + random.nextInt(900)));
+        user.setUserAgent(pick(USER_AGENTS, random));
+
+        Map<String, String> crypto = new LinkedHashMap<>();
+        crypto.put("coin", pick(COINS, random));
+        crypto.put("wallet", "0x" + Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()));
+        crypto.put("network", "Ethereum (ERC20)");
+        user.setCrypto(crypto);
+        user.setRole(pick(ROLES, random));
+        return user;
+    }
+
+    private static Map<String, Object> address(Random random) {
+        String state = pick(STATES, random);
+        Map<String, Object> coordinates = new LinkedHashMap<>();
+        coordinates.put("lat", Math.round((random.nextDouble() * 180 - 90) * 1e6) / 1e6);
+        coordinates.put("lng", Math.round((random.nextDouble() * 360 - 180) * 1e6) / 1e6);
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("address", (1 + random.nextInt(9999)) + " " + pick(LAST_NAMES, random) + " Street");
+        address.put("city", pick(CITIES, random));
+        address.put("state", state);
+        address.put("stateCode", state.substring(0, 2).toUpperCase());
+        address.put("postalCode", Integer.toString(10000 + random.nextInt(90000)));
+        address.put("coordinates", coordinates);
+        address.put("country", "United States");
+        return address;
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
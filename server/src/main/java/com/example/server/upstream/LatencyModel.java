@@ -0,0 +1,59 @@
+package com.example.server.upstream;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response time distribution of the {@link FakeUpstream}; every sample is clamped to {@code [min, max]}.
+ */
+public record LatencyModel(Distribution distribution, Duration min, Duration mean, Duration max, double sigma) {
+
+    public static final LatencyModel NONE = new LatencyModel(Distribution.NONE, Duration.ZERO, Duration.ZERO,
+            Duration.ZERO, 0);
+
+    public enum Distribution {
+        /**
+         * Respond immediately.
+         */
+        NONE,
+        /**
+         * Always {@code mean}.
+         */
+        FIXED,
+        /**
+         * Uniform between {@code min} and {@code max}.
+         */
+        UNIFORM,
+        /**
+         * {@code min} plus an exponential delay averaging {@code mean - min}.
+         */
+        EXPONENTIAL,
+        /**
+         * Log-normal with median {@code mean} and shape {@code sigma}: mostly near the median with a long tail.
+         */
+        LOG_NORMAL
+    }
+
+    public LatencyModel {
+        if (min.compareTo(max) > 0 && distribution != Distribution.NONE) {
+            throw new IllegalArgumentException("Latency min " + min + " exceeds max " + max);
+        }
+    }
+
+    public long sampleNanos() {
+        if (distribution == Distribution.NONE) {
+            return 0;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        double sample = switch (distribution) {
+            case NONE -> 0;
+            case FIXED -> mean.toNanos();
+            case UNIFORM -> minNanos + random.nextDouble() * (maxNanos - minNanos);
+            case EXPONENTIAL -> minNanos - Math.log(1 - random.nextDouble()) * Math.max(0, mean.toNanos() - minNanos);
+            case LOG_NORMAL -> mean.toNanos() * Math.exp(sigma * random.nextGaussian());
+        };
+        return Math.max(minNanos, Math.min(maxNanos, (long) sample));
+    }
+}
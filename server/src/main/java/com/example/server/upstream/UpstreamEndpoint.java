@@ -0,0 +1,12 @@
+package com.example.server.upstream;
+
+/**
+ * Resolved base URL of the upstream users API: {@code tools.upstream.base-url}, or the
+ * {@link FakeUpstream} when it is enabled.
+ */
+public record UpstreamEndpoint(String baseUrl) {
+
+    public UpstreamEndpoint {
+        baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+}
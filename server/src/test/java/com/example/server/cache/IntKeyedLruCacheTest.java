@@ -0,0 +1,126 @@
+package com.example.server.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntKeyedLruCacheTest {
+
+    @Test
+    void returnsWhatWasPut() {
+        IntKeyedLruCache<String> cache = new IntKeyedLruCache<>(64, 0);
+
+        cache.put(1, "one");
+        cache.put(-7, "minus seven");
+        cache.put(1, "uno");
+
+        assertThat(cache.get(1)).isEqualTo("uno");
+        assertThat(cache.get(-7)).isEqualTo("minus seven");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void putOfNullInvalidates() {
+        IntKeyedLruCache<String> cache = new IntKeyedLruCache<>(64, 0);
+        cache.put(1, "one");
+
+        cache.put(1, null);
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        IntKeyedLruCache<Integer> cache = new IntKeyedLruCache<>(64, 0);
+        cache.put(0, 0);
+        cache.put(1, 1);
+
+        // Key 0 is read after every insert, key 1 never again
+        for (int key = 2; key < 10_000; key++) {
+            cache.put(key, key);
+            assertThat(cache.get(0)).isEqualTo(0);
+        }
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isEqualTo(64);
+        assertThat(cache.sizeEvictionCount()).isEqualTo(10_000 - 64);
+    }
+
+    @Test
+    void zeroEntriesDisablesCaching() {
+        IntKeyedLruCache<String> cache = new IntKeyedLruCache<>(0, 0);
+
+        cache.put(1, "one");
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.fill(1, "one", cache.writeVersion(1))).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() throws InterruptedException {
+        IntKeyedLruCache<String> cache = new IntKeyedLruCache<>(64, TimeUnit.MILLISECONDS.toNanos(20));
+        cache.put(1, "one");
+
+        Thread.sleep(50);
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.expirationCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void fillIsSkippedAfterConcurrentWrite() {
+        IntKeyedLruCache<String> cache = new IntKeyedLruCache<>(64, 0);
+
+        long beforePut = cache.writeVersion(1);
+        cache.put(1, "written");
+        assertThat(cache.fill(1, "read before the write", beforePut)).isFalse();
+        assertThat(cache.get(1)).isEqualTo("written");
+
+        long beforeInvalidate = cache.writeVersion(1);
+        cache.invalidate(1);
+        assertThat(cache.fill(1, "read before the delete", beforeInvalidate)).isFalse();
+        assertThat(cache.get(1)).isNull();
+
+        long beforeClear = cache.writeVersion(1);
+        cache.clear();
+        assertThat(cache.fill(1, "read before the clear", beforeClear)).isFalse();
+
+        assertThat(cache.fill(1, "read", cache.writeVersion(1))).isTrue();
+        assertThat(cache.get(1)).isEqualTo("read");
+    }
+
+    @Test
+    void matchesMapUnderRandomPutsAndInvalidations() {
+        // Far more capacity than keys, so nothing is evicted and the map is an exact model; invalidations
+        // exercise backward-shift deletion
+        IntKeyedLruCache<Integer> cache = new IntKeyedLruCache<>(1024, 0);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(200) * 1024;
+            if (random.nextInt(3) == 0) {
+                cache.invalidate(key);
+                expected.remove(key);
+            } else {
+                cache.put(key, i);
+                expected.put(key, i);
+            }
+            int probe = random.nextInt(200) * 1024;
+            assertThat(cache.get(probe)).isEqualTo(expected.get(probe));
+        }
+        assertThat(cache.size()).isEqualTo(expected.size());
+        assertThat(cache.sizeEvictionCount()).isZero();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.server.compact;
+
+import com.example.server.model.User;
+import com.example.server.upstream.FakeUsers;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactUserCodecTest {
+
+    private final CompactUserCodec codec = new CompactUserCodec(new StringPool(10_000));
+
+    @Test
+    void roundTripsUpstreamUsers() {
+        List<User> users = FakeUsers.users(500, 7);
+
+        for (User user : users) {
+            assertThat(codec.decode(codec.encode(user))).isEqualTo(user);
+        }
+    }
+
+    @Test
+    void roundTripsSparseUser() {
+        User user = new User();
+        user.setId(3);
+
+        CompactUser compact = codec.encode(user);
+
+        assertThat(compact.extras()).isNull();
+        assertThat(codec.decode(compact)).isEqualTo(user);
+        assertThat(codec.encode(null)).isNull();
+        assertThat(codec.decode(null)).isNull();
+    }
+
+    @Test
+    void keepsUnexpectedNestedValuesAsExtras() {
+        User user = FakeUsers.users(1, 11).get(0);
+        Map<String, Object> address = new LinkedHashMap<>(user.getAddress());
+        address.put("city", null);
+        address.put("postalCode", 12345);
+        address.put("coordinates", Map.of("lat", 1.5, "lng", 2.5, "alt", 3.5));
+        address.put("district", "North");
+        user.setAddress(address);
+        Map<String, Object> company = new HashMap<>(user.getCompany());
+        company.put("address", null);
+        user.setCompany(company);
+        Map<String, String> hair = new HashMap<>();
+        hair.put("color", null);
+        user.setHair(hair);
+
+        CompactUser compact = codec.encode(user);
+
+        assertThat(compact.address().extras()).containsOnlyKeys("postalCode", "coordinates", "district");
+        assertThat(codec.decode(compact)).isEqualTo(user);
+    }
+
+    @Test
+    void keepsCategoricalValuesBeyondThePoolAsExtras() {
+        StringPool pool = new StringPool(0);
+        while (pool.code("filler-" + pool.codeCount()) != StringPool.OVERFLOW) {
+            // exhaust the code space
+        }
+        CompactUserCodec fullCodec = new CompactUserCodec(pool);
+        User user = FakeUsers.users(1, 13).get(0);
+        user.setGender("not yet coded");
+        user.getHair().put("color", "also not coded");
+
+        CompactUser compact = fullCodec.encode(user);
+
+        assertThat(compact.gender()).isEqualTo(StringPool.OVERFLOW);
+        assertThat(compact.extras()).containsEntry("gender", "not yet coded");
+        assertThat(fullCodec.decode(compact)).isEqualTo(user);
+    }
+}
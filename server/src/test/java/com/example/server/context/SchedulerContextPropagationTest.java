@@ -0,0 +1,114 @@
+package com.example.server.context;
+
+import com.example.server.accessors.accessorsImpl.CustomContextAccessor;
+import com.example.server.accessors.accessorsImpl.HeaderContextAccessor;
+import com.example.server.accessors.accessorsImpl.LocaleContextAccessor;
+import com.example.server.accessors.accessorsImpl.MdcAccessor;
+import com.example.server.accessors.accessorsImpl.RequestAttributesAccessor;
+import com.example.server.config.ContextRestorationProperties;
+import com.example.server.interceptor.UnifiedContextInterceptor;
+import com.example.server.journal.InvocationJournal;
+import com.example.server.journal.InvocationOutcome;
+import com.example.server.journal.JournalReader;
+import com.example.server.model.ContextParamDefault;
+import com.example.server.service.ContextRestorationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulerContextPropagationTest {
+
+    private static final UUID ZERO = new UUID(0, 0);
+
+    private final HeaderContextAccessor headerContextAccessor = new HeaderContextAccessor();
+    private final CustomContextAccessor customContextAccessor = new CustomContextAccessor();
+    private final MdcAccessor mdcAccessor = new MdcAccessor();
+    private final RequestAttributesAccessor requestAttributesAccessor = new RequestAttributesAccessor();
+    private final LocaleContextAccessor localeContextAccessor = new LocaleContextAccessor();
+    private final ContextPropagationManager contextManager = new ContextPropagationManager(List.of(
+            headerContextAccessor, customContextAccessor, mdcAccessor, requestAttributesAccessor, localeContextAccessor));
+    private final ContextRestorationService contextRestorationService = new ContextRestorationService(
+            headerContextAccessor, customContextAccessor, mdcAccessor, requestAttributesAccessor, localeContextAccessor,
+            new ContextRestorationProperties());
+    private final UnifiedContextInterceptor interceptor = interceptor();
+    private final SchedulerContextPropagation propagation = new SchedulerContextPropagation(contextManager);
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        propagation.close();
+        contextManager.clearContext();
+    }
+
+    @Test
+    void toolsOnBoundedElasticJournalTheirOwnRequestIds() throws IOException {
+        List<Map<String, String>> captured = new ArrayList<>();
+        try (InvocationJournal journal = new InvocationJournal(directory, 1 << 16, 2, 8)) {
+            journal.start();
+            // Several requests on one thread, so later tools run on a reused worker thread
+            for (int i = 0; i < 3; i++) {
+                int argsHash = i;
+                MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mcp/message");
+                request.addHeader("x-correlation-id", "request-" + i);
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+                interceptor.preHandle(request, response, null);
+                captured.add(contextRestorationService.capturedMdc());
+                // As the SYNC MCP server runs a tool: scheduled from the request thread, which blocks on it
+                Mono.fromRunnable(() -> {
+                    Map<String, String> mdc = contextRestorationService.capturedMdc();
+                    journal.record("getUserById", argsHash, mdc.get(ContextParamDefault.REQUEST_ID.getParamKey()),
+                            mdc.get(ContextParamDefault.CORRELATION_ID.getParamKey()), 1, InvocationOutcome.SUCCESS);
+                }).subscribeOn(Schedulers.boundedElastic()).block();
+                interceptor.afterCompletion(request, response, null, null);
+            }
+        }
+
+        List<JournalReader.Entry> entries = new ArrayList<>();
+        for (Path segment : JournalReader.segments(directory)) {
+            JournalReader.read(segment, entries::add);
+        }
+        assertThat(entries).hasSize(3);
+        for (int i = 0; i < entries.size(); i++) {
+            JournalReader.Entry entry = entries.get(i);
+            assertThat(entry.requestId()).isNotEqualTo(ZERO);
+            assertThat(entry.correlationId()).isNotEqualTo(ZERO);
+            assertThat(entry.requestId().toString())
+                    .isEqualTo(captured.get(i).get(ContextParamDefault.REQUEST_ID.getParamKey()));
+            assertThat(entry.correlationId().toString())
+                    .isEqualTo(captured.get(i).get(ContextParamDefault.CORRELATION_ID.getParamKey()));
+        }
+        assertThat(entries).extracting(JournalReader.Entry::requestId).doesNotHaveDuplicates();
+    }
+
+    private UnifiedContextInterceptor interceptor() {
+        UnifiedContextInterceptor interceptor = new UnifiedContextInterceptor();
+        ReflectionTestUtils.setField(interceptor, "headerContextAccessor", headerContextAccessor);
+        ReflectionTestUtils.setField(interceptor, "customContextAccessor", customContextAccessor);
+        ReflectionTestUtils.setField(interceptor, "mdcAccessor", mdcAccessor);
+        ReflectionTestUtils.setField(interceptor, "requestAttributesAccessor", requestAttributesAccessor);
+        ReflectionTestUtils.setField(interceptor, "localeContextAccessor", localeContextAccessor);
+        ReflectionTestUtils.setField(interceptor, "headerPropagationPolicy",
+                new HeaderPropagationPolicy(List.of("x-correlation-id")));
+        return interceptor;
+    }
+}
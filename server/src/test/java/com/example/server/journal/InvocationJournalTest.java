@@ -0,0 +1,168 @@
+package com.example.server.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvocationJournalTest {
+
+    private static final int RING_CAPACITY = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsReadBackInOrder() throws IOException {
+        UUID requestId = UUID.randomUUID();
+        UUID correlationId = UUID.randomUUID();
+
+        try (InvocationJournal journal = new InvocationJournal(directory, 1 << 16, 4, RING_CAPACITY)) {
+            journal.start();
+            journal.record("getUserById", 17, requestId.toString(), correlationId.toString(), 1_500,
+                    InvocationOutcome.SUCCESS);
+            journal.record("searchUsers", -3, requestId.toString(), correlationId.toString(), 2_500,
+                    InvocationOutcome.UPSTREAM_ERROR);
+        }
+
+        List<JournalReader.Entry> entries = readAll();
+        assertThat(entries).extracting(JournalReader.Entry::tool).containsExactly("getUserById", "searchUsers");
+        assertThat(entries).extracting(JournalReader.Entry::argsHash).containsExactly(17, -3);
+        assertThat(entries).extracting(JournalReader.Entry::latencyNanos).containsExactly(1_500L, 2_500L);
+        assertThat(entries).extracting(JournalReader.Entry::outcome)
+                .containsExactly(InvocationOutcome.SUCCESS, InvocationOutcome.UPSTREAM_ERROR);
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.requestId()).isEqualTo(requestId);
+            assertThat(entry.correlationId()).isEqualTo(correlationId);
+        });
+    }
+
+    @Test
+    void ringWrapsAroundAndSegmentsRoll() throws Exception {
+        int events = 20 * RING_CAPACITY;
+        // Room for a few invocations per segment, so the journal rolls and prunes old segments
+        int segmentSize = JournalFormat.HEADER_SIZE + JournalFormat.MAX_TOOL_SIZE + 4 * JournalFormat.INVOCATION_SIZE + 1;
+
+        try (InvocationJournal journal = new InvocationJournal(directory, segmentSize, 3, RING_CAPACITY)) {
+            journal.start();
+            for (int i = 0; i < events; i++) {
+                journal.record("tool-" + i % 3, i, null, null, i, InvocationOutcome.SUCCESS);
+                if (i % (RING_CAPACITY / 2) == 0) {
+                    awaitDrained(journal);
+                }
+            }
+            awaitDrained(journal);
+            assertThat(journal.droppedCount()).isZero();
+            assertThat(journal.writtenCount()).isEqualTo(events);
+        }
+
+        assertThat(JournalReader.segments(directory)).hasSize(3);
+        List<JournalReader.Entry> entries = readAll();
+        assertThat(entries).isNotEmpty();
+        // The retained segments hold the newest events, in order and with their own tool names
+        int first = entries.get(0).argsHash();
+        for (int i = 0; i < entries.size(); i++) {
+            assertThat(entries.get(i).argsHash()).isEqualTo(first + i);
+            assertThat(entries.get(i).tool()).isEqualTo("tool-" + (first + i) % 3);
+        }
+        assertThat(first + entries.size()).isEqualTo(events);
+    }
+
+    @Test
+    void dropsEventsWhenRingIsFull() throws IOException {
+        int events = 10_000;
+        long written;
+        long dropped;
+        try (InvocationJournal journal = new InvocationJournal(directory, 1 << 20, 1, RING_CAPACITY)) {
+            journal.start();
+            for (int i = 0; i < events; i++) {
+                journal.record("getUserById", i, null, null, i, InvocationOutcome.SUCCESS);
+            }
+            journal.close();
+            written = journal.writtenCount();
+            dropped = journal.droppedCount();
+        }
+
+        assertThat(written + dropped).isEqualTo(events);
+        assertThat(readAll()).hasSize((int) written);
+    }
+
+    @Test
+    void idleWriterParksUntilAnEventIsRecorded() throws Exception {
+        try (InvocationJournal journal = new InvocationJournal(directory, 1 << 16, 1, RING_CAPACITY)) {
+            journal.start();
+            Thread writer = (Thread) ReflectionTestUtils.getField(journal, "writer");
+            awaitParked(journal, writer);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long cpuBefore = threads.getThreadCpuTime(writer.getId());
+            Thread.sleep(200);
+            long cpuIdle = threads.getThreadCpuTime(writer.getId()) - cpuBefore;
+            // A spinning writer would use most of the idle period
+            if (cpuBefore >= 0) {
+                assertThat(cpuIdle).isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+            }
+            assertThat(LockSupport.getBlocker(writer)).isSameAs(journal);
+
+            journal.record("getUserById", 1, null, null, 1, InvocationOutcome.SUCCESS);
+            awaitDrained(journal);
+            assertThat(journal.writtenCount()).isEqualTo(1);
+            awaitParked(journal, writer);
+        }
+    }
+
+    @Test
+    void disabledJournalWritesNothing() {
+        try (InvocationJournal journal = InvocationJournal.disabled()) {
+            journal.record("getUserById", 1, null, null, 1, InvocationOutcome.SUCCESS);
+            assertThat(journal.writtenCount()).isZero();
+            assertThat(journal.pendingCount()).isZero();
+        }
+    }
+
+    @Test
+    void uuidBitsMatchUuid() {
+        UUID uuid = UUID.randomUUID();
+
+        assertThat(JournalFormat.uuidBits(uuid.toString(), true)).isEqualTo(uuid.getMostSignificantBits());
+        assertThat(JournalFormat.uuidBits(uuid.toString(), false)).isEqualTo(uuid.getLeastSignificantBits());
+        assertThat(JournalFormat.uuidBits("not-a-uuid", true)).isZero();
+        assertThat(JournalFormat.uuidBits("zzzzzzzz-zzzz-zzzz-zzzz-zzzzzzzzzzzz", false)).isZero();
+        assertThat(JournalFormat.uuidBits(null, true)).isZero();
+    }
+
+    private List<JournalReader.Entry> readAll() throws IOException {
+        List<JournalReader.Entry> entries = new ArrayList<>();
+        for (Path segment : JournalReader.segments(directory)) {
+            JournalReader.read(segment, entries::add);
+        }
+        return entries;
+    }
+
+    private static void awaitParked(InvocationJournal journal, Thread writer) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!(writer.getState() == Thread.State.WAITING && LockSupport.getBlocker(writer) == journal)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(writer.getState()).isEqualTo(Thread.State.WAITING);
+    }
+
+    private static void awaitDrained(InvocationJournal journal) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (journal.pendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
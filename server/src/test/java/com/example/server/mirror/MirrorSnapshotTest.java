@@ -0,0 +1,111 @@
+package com.example.server.mirror;
+
+import com.example.server.model.User;
+import com.example.server.upstream.FakeUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MirrorSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<User> users = FakeUsers.users(200, 9);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapsWhatWasWritten() throws IOException {
+        Path file = directory.resolve("users.snapshot");
+        long createdAtMillis = 1_700_000_000_123L;
+        List<byte[]> records = records(users);
+
+        MirrorSnapshot.write(file, createdAtMillis, UserIndex.build(users), records);
+        MirrorSnapshot snapshot = MirrorSnapshot.map(file);
+
+        assertThat(snapshot.createdAtMillis()).isEqualTo(createdAtMillis);
+        assertThat(snapshot.index().size()).isEqualTo(users.size());
+        for (int position = 0; position < users.size(); position++) {
+            assertThat(bytes(snapshot.record(position))).isEqualTo(records.get(position));
+            assertThat(objectMapper.readValue(bytes(snapshot.record(position)), User.class)).isEqualTo(users.get(position));
+        }
+        for (String query : List.of("a", "ja", "son", "x.dummyjson", UserIndex.normalize(users.get(42).getUsername()))) {
+            assertThat(snapshot.index().search(query)).as(query).containsExactly(UserIndexTest.expected(users, query));
+        }
+        // The temporary file was moved into place
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void replacesAnExistingSnapshot() throws IOException {
+        Path file = directory.resolve("users.snapshot");
+        MirrorSnapshot.write(file, 1L, UserIndex.build(users), records(users));
+        List<User> fewer = users.subList(0, 10);
+
+        MirrorSnapshot.write(file, 2L, UserIndex.build(fewer), records(fewer));
+
+        MirrorSnapshot snapshot = MirrorSnapshot.map(file);
+        assertThat(snapshot.createdAtMillis()).isEqualTo(2L);
+        assertThat(snapshot.index().size()).isEqualTo(10);
+    }
+
+    @Test
+    void emptySnapshotRoundTrips() throws IOException {
+        Path file = directory.resolve("users.snapshot");
+
+        MirrorSnapshot.write(file, 1L, UserIndex.build(List.of()), List.of());
+
+        MirrorSnapshot snapshot = MirrorSnapshot.map(file);
+        assertThat(snapshot.index().size()).isZero();
+        assertThat(snapshot.index().search("abc")).isEmpty();
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = directory.resolve("foreign.snapshot");
+        Files.write(foreign, "{\"users\":[]}".getBytes());
+        assertThatThrownBy(() -> MirrorSnapshot.map(foreign))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a user mirror snapshot");
+
+        Path file = directory.resolve("users.snapshot");
+        MirrorSnapshot.write(file, 1L, UserIndex.build(users), records(users));
+        byte[] content = Files.readAllBytes(file);
+        for (int length : new int[]{MirrorSnapshot.HEADER_SIZE + 8, content.length / 2, content.length - 1}) {
+            Path truncated = directory.resolve("truncated-" + length + ".snapshot");
+            Files.write(truncated, Arrays.copyOf(content, length));
+            assertThatThrownBy(() -> MirrorSnapshot.map(truncated))
+                    .as("length %d", length)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Corrupt user mirror snapshot");
+        }
+    }
+
+    private List<byte[]> records(List<User> source) throws IOException {
+        List<byte[]> records = new ArrayList<>(source.size());
+        for (User user : source) {
+            records.add(objectMapper.writeValueAsBytes(user));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
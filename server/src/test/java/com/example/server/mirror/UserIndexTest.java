@@ -0,0 +1,77 @@
+package com.example.server.mirror;
+
+import com.example.server.model.User;
+import com.example.server.upstream.FakeUsers;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIndexTest {
+
+    private final List<User> users = FakeUsers.users(300, 5);
+    private final UserIndex index = UserIndex.build(users);
+
+    @Test
+    void matchesSubstringScanOfSearchableFields() {
+        List<String> queries = new ArrayList<>(List.of("a", "em", "son", "x.dummyjson", "engineering", "zzzz", ""));
+        for (int i = 0; i < users.size(); i += 37) {
+            User user = users.get(i);
+            queries.add(UserIndex.normalize(user.getFirstName()));
+            queries.add(UserIndex.normalize(user.getLastName()).substring(1));
+            queries.add(UserIndex.normalize(user.getUsername()));
+        }
+
+        for (String query : queries) {
+            assertThat(index.search(query)).as(query).containsExactly(expected(users, query));
+        }
+    }
+
+    @Test
+    void doesNotMatchAcrossFields() {
+        User user = users.get(0);
+        String spanning = UserIndex.normalize(user.getFirstName() + user.getLastName());
+
+        assertThat(index.search(spanning)).containsExactly(expected(users, spanning));
+    }
+
+    @Test
+    void normalizesQueries() {
+        assertThat(UserIndex.normalize("  Smith ")).isEqualTo("smith");
+        assertThat(UserIndex.normalize(null)).isEmpty();
+    }
+
+    static int[] expected(List<User> users, String query) {
+        return IntStream.range(0, users.size())
+                .filter(position -> searchableFields(users.get(position)).stream()
+                        .anyMatch(field -> field.toLowerCase(Locale.ROOT).contains(query)))
+                .toArray();
+    }
+
+    private static List<String> searchableFields(User user) {
+        List<Object> values = new ArrayList<>(List.of(nonNull(user.getFirstName()), nonNull(user.getLastName()),
+                nonNull(user.getMaidenName()), nonNull(user.getEmail()), nonNull(user.getUsername())));
+        Map<String, Object> company = user.getCompany();
+        if (company != null) {
+            values.add(company.get("name"));
+            values.add(company.get("department"));
+            values.add(company.get("title"));
+        }
+        List<String> fields = new ArrayList<>();
+        for (Object value : values) {
+            if (value instanceof String s && !s.isEmpty()) {
+                fields.add(s);
+            }
+        }
+        return fields;
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+}
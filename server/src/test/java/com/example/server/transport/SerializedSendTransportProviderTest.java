@@ -0,0 +1,173 @@
+package com.example.server.transport;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedSendTransportProviderTest {
+
+    @Test
+    void concurrentSendsAreWrittenOneAtATime() {
+        RecordingTransport recording = new RecordingTransport(Duration.ofMillis(1));
+        McpServerTransport transport = serialized(recording);
+
+        List<Mono<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            sends.add(transport.sendMessage(message("m" + i)).subscribeOn(Schedulers.parallel()));
+        }
+        Mono.when(sends).block(Duration.ofSeconds(30));
+
+        assertThat(recording.maxActive).hasValue(1);
+        assertThat(recording.written).hasSize(200).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void sendsAreWrittenInTheOrderTheyWereQueued() {
+        RecordingTransport recording = new RecordingTransport(null);
+        McpServerTransport transport = serialized(recording);
+
+        for (int i = 0; i < 5; i++) {
+            transport.sendMessage(message("m" + i)).subscribe();
+        }
+        assertThat(recording.started).containsExactly("m0");
+        for (int i = 0; i < 5; i++) {
+            recording.complete("m" + i);
+        }
+
+        assertThat(recording.written).containsExactly("m0", "m1", "m2", "m3", "m4");
+        assertThat(recording.maxActive).hasValue(1);
+    }
+
+    @Test
+    void cancelledSendsNeitherOverlapNorReorderTheOthers() {
+        RecordingTransport recording = new RecordingTransport(null);
+        McpServerTransport transport = serialized(recording);
+
+        List<Disposable> sends = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sends.add(transport.sendMessage(message("m" + i)).subscribe());
+        }
+
+        // Cancelled while waiting: its successor still waits for m1
+        sends.get(2).dispose();
+        recording.complete("m0");
+        assertThat(recording.started).containsExactly("m0", "m1");
+
+        // Cancelled while being written
+        sends.get(1).dispose();
+        assertThat(recording.started).containsExactly("m0", "m1", "m3");
+        recording.complete("m3");
+        recording.complete("m4");
+        recording.complete("m5");
+
+        assertThat(recording.written).containsExactly("m0", "m3", "m4", "m5");
+        assertThat(recording.maxActive).hasValue(1);
+        assertThat(recording.active).hasValue(0);
+
+        transport.sendMessage(message("m6")).subscribe();
+        recording.complete("m6");
+        assertThat(recording.written).endsWith("m6");
+    }
+
+    private static McpServerTransport serialized(McpServerTransport transport) {
+        AtomicReference<McpServerTransport> wrapped = new AtomicReference<>();
+        McpServerTransportProvider provider = new McpServerTransportProvider() {
+            @Override
+            public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+                sessionFactory.create(transport);
+            }
+
+            @Override
+            public Mono<Void> notifyClients(String method, Object params) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Void> closeGracefully() {
+                return Mono.empty();
+            }
+        };
+        new SerializedSendTransportProvider(provider).setSessionFactory(session -> {
+            wrapped.set(session);
+            return null;
+        });
+        return wrapped.get();
+    }
+
+    private static McpSchema.JSONRPCMessage message(String method) {
+        return new McpSchema.JSONRPCNotification(McpSchema.JSONRPC_VERSION, method, null);
+    }
+
+    /**
+     * Records which writes overlap. A write completes after the given delay, or when the test completes it.
+     */
+    private static final class RecordingTransport implements McpServerTransport {
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final List<String> started = Collections.synchronizedList(new ArrayList<>());
+        final List<String> written = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, Sinks.Empty<Void>> pending = new ConcurrentHashMap<>();
+        private final Duration delay;
+
+        RecordingTransport(Duration delay) {
+            this.delay = delay;
+        }
+
+        void complete(String method) {
+            pending.remove(method).tryEmitEmpty();
+        }
+
+        @Override
+        public Mono<Void> sendMessage(McpSchema.JSONRPCMessage message) {
+            return Mono.defer(() -> {
+                String method = ((McpSchema.JSONRPCNotification) message).method();
+                started.add(method);
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Mono<Void> write;
+                if (delay != null) {
+                    write = Mono.delay(delay).then();
+                } else {
+                    Sinks.Empty<Void> done = Sinks.empty();
+                    pending.put(method, done);
+                    write = done.asMono();
+                }
+                // Counted down before the send completes, so the next write may start right away
+                return write
+                        .then(Mono.<Void>fromRunnable(() -> {
+                            written.add(method);
+                            active.decrementAndGet();
+                        }))
+                        .doOnCancel(active::decrementAndGet);
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeReference<T> typeRef) {
+            return null;
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return Mono.empty();
+        }
+    }
+}